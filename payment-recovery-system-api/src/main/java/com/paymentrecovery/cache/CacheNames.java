@@ -0,0 +1,22 @@
+package com.paymentrecovery.cache;
+
+/**
+ * Cache names used with Spring's cache abstraction
+ */
+public final class CacheNames {
+
+    /**
+     * Company dashboard metrics, keyed by company ID
+     */
+    public static final String COMPANY_DASHBOARD_METRICS = "companyDashboardMetrics";
+
+    /**
+     * Admin platform metrics, single entry keyed by {@link #PLATFORM_METRICS_KEY}
+     */
+    public static final String PLATFORM_METRICS = "platformMetrics";
+
+    public static final String PLATFORM_METRICS_KEY = "all";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,60 @@
+package com.paymentrecovery.cache;
+
+import com.paymentrecovery.event.InvoiceChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps cached dashboard metrics consistent with invoice changes
+ * Evicts after commit so a concurrent reader cannot re-cache pre-commit numbers
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardCacheEvictionListener {
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Evict metrics affected by a committed invoice change
+     *
+     * @param event Invoice change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInvoiceChanged(InvoiceChangedEvent event) {
+        if (event.affectsDashboard()) {
+            evict(CacheNames.COMPANY_DASHBOARD_METRICS, event.companyId());
+        }
+        // Platform metrics count every invoice, including drafts
+        evict(CacheNames.PLATFORM_METRICS, CacheNames.PLATFORM_METRICS_KEY);
+
+        log.debug("Evicted dashboard metrics for company ID: {} after invoice ID: {} changed {} -> {}",
+                event.companyId(), event.invoiceId(), event.previousStatus(), event.newStatus());
+    }
+
+    /**
+     * Drop all company dashboard metrics at midnight
+     * Overdue figures depend on the current date, so yesterday's entries are wrong after rollover
+     */
+    @Scheduled(cron = "${app.cache.dashboard.rollover-cron:0 0 0 * * *}")
+    public void evictOnDateRollover() {
+        Cache cache = cacheManager.getCache(CacheNames.COMPANY_DASHBOARD_METRICS);
+        if (cache != null) {
+            cache.clear();
+            log.info("Cleared company dashboard metrics cache on date rollover");
+        }
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
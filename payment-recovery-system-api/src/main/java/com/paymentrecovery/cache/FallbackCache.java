@@ -0,0 +1,111 @@
+package com.paymentrecovery.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Two-tier cache: Redis first, local Caffeine cache while Redis is unreachable
+ * A Redis failure marks Redis as down for the manager's retry interval, during which
+ * all operations go straight to the local tier instead of waiting on Redis timeouts
+ * Evictions are applied to both tiers so a recovering node never serves evicted entries
+ */
+@Slf4j
+public class FallbackCache implements Cache {
+
+    private final Cache remote;
+    private final Cache local;
+    private final FallbackCacheManager manager;
+
+    public FallbackCache(Cache remote, Cache local, FallbackCacheManager manager) {
+        this.remote = remote;
+        this.local = local;
+        this.manager = manager;
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        if (manager.isRemoteAvailable()) {
+            try {
+                return remote.get(key);
+            } catch (RuntimeException e) {
+                manager.markRemoteDown(e);
+            }
+        }
+        return local.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        if (manager.isRemoteAvailable()) {
+            try {
+                return remote.get(key, type);
+            } catch (RuntimeException e) {
+                manager.markRemoteDown(e);
+            }
+        }
+        return local.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        if (manager.isRemoteAvailable()) {
+            try {
+                return remote.get(key, valueLoader);
+            } catch (ValueRetrievalException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                manager.markRemoteDown(e);
+            }
+        }
+        return local.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (manager.isRemoteAvailable()) {
+            try {
+                remote.put(key, value);
+                return;
+            } catch (RuntimeException e) {
+                manager.markRemoteDown(e);
+            }
+        }
+        local.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.evict(key);
+        if (manager.isRemoteAvailable()) {
+            try {
+                remote.evict(key);
+            } catch (RuntimeException e) {
+                manager.markRemoteDown(e);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+        if (manager.isRemoteAvailable()) {
+            try {
+                remote.clear();
+            } catch (RuntimeException e) {
+                manager.markRemoteDown(e);
+            }
+        }
+    }
+}
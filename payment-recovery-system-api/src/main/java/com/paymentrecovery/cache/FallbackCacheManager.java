@@ -0,0 +1,93 @@
+package com.paymentrecovery.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cache manager that pairs every Redis cache with a local fallback cache
+ * Tracks Redis health for all caches: after a failure Redis is skipped for the retry interval
+ * When Redis comes back, its caches are cleared once, because evictions issued during the
+ * outage could not reach it
+ */
+@Slf4j
+public class FallbackCacheManager implements CacheManager {
+
+    private final CacheManager remoteCacheManager;
+    private final CacheManager localCacheManager;
+    private final long retryIntervalMillis;
+
+    private final ConcurrentMap<String, FallbackCache> caches = new ConcurrentHashMap<>();
+    private final AtomicBoolean clearRemoteOnRecovery = new AtomicBoolean(false);
+    private volatile long remoteDownUntil = 0L;
+
+    public FallbackCacheManager(CacheManager remoteCacheManager, CacheManager localCacheManager,
+                                Duration retryInterval) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.localCacheManager = localCacheManager;
+        this.retryIntervalMillis = retryInterval.toMillis();
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> {
+            Cache remote = remoteCacheManager.getCache(cacheName);
+            Cache local = localCacheManager.getCache(cacheName);
+            if (remote == null || local == null) {
+                return null;
+            }
+            return new FallbackCache(remote, local, this);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    /**
+     * Check whether Redis should be used for the next operation
+     *
+     * @return True if Redis is considered available
+     */
+    boolean isRemoteAvailable() {
+        if (System.currentTimeMillis() < remoteDownUntil) {
+            return false;
+        }
+        if (clearRemoteOnRecovery.compareAndSet(true, false)) {
+            try {
+                for (String name : caches.keySet()) {
+                    Cache remote = remoteCacheManager.getCache(name);
+                    if (remote != null) {
+                        remote.clear();
+                    }
+                }
+                log.info("Redis cache reachable again, cleared entries that may have missed evictions");
+            } catch (RuntimeException e) {
+                markRemoteDown(e);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mark Redis as unavailable for the retry interval
+     *
+     * @param cause Failure that triggered the fallback
+     */
+    void markRemoteDown(RuntimeException cause) {
+        if (System.currentTimeMillis() >= remoteDownUntil) {
+            log.warn("Redis cache unavailable, using local cache for {} ms: {}",
+                    retryIntervalMillis, cause.getMessage());
+        }
+        remoteDownUntil = System.currentTimeMillis() + retryIntervalMillis;
+        clearRemoteOnRecovery.set(true);
+    }
+}
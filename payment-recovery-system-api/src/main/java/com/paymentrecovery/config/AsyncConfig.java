@@ -1,29 +1,55 @@
 package com.paymentrecovery.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
-import java.util.concurrent.Executor;
-
 /**
- * Async configuration for fire-and-forget operations
- * Enables async execution for Python service calls
+ * Async configuration
+ * Provides the extraction completion executor and the bounded password hashing executor
  */
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
-    @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    /**
+     * Executor storing extraction results (InvoiceExtractionService) and recording extraction job
+     * outcomes (ExtractionJobWorker)
+     * Extraction requests themselves are non-blocking; this only takes the database writes off
+     * the HTTP client's I/O threads. Queued tasks are bounded by the jobs in flight (a store task
+     * per batch response and an outcome task per job), but both kinds share the queue, so it is
+     * left unbounded: a rejected task would lose a job outcome
+     */
+    @Bean(name = "extractionCompletionExecutor")
+    public ThreadPoolTaskExecutor extractionCompletionExecutor(
+            @Value("${app.extraction.dispatch.completion-threads:4}") int completionThreads) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("python-service-");
+        executor.setCorePoolSize(completionThreads);
+        executor.setMaxPoolSize(completionThreads);
+        executor.setThreadNamePrefix("extraction-completion-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
         executor.initialize();
         return executor;
     }
-}
 
+    /**
+     * Executor for BCrypt work (PasswordHashingService)
+     * One thread per core by default; tasks beyond the queue capacity are rejected rather than queued
+     */
+    @Bean(name = "passwordHashingExecutor")
+    public ThreadPoolTaskExecutor passwordHashingExecutor(
+            @Value("${app.security.password.hashing-threads:0}") int hashingThreads,
+            @Value("${app.security.password.queue-capacity:16}") int queueCapacity) {
+        int poolSize = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.initialize();
+        return executor;
+    }
+}
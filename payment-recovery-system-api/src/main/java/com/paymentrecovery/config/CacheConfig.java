@@ -0,0 +1,70 @@
+package com.paymentrecovery.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymentrecovery.cache.CacheNames;
+import com.paymentrecovery.cache.FallbackCacheManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cache configuration
+ * Redis is the shared cache tier; a small local Caffeine tier takes over while Redis is down
+ */
+@Configuration
+public class CacheConfig {
+
+    @Value("${spring.cache.redis.time-to-live:3600000}")
+    private long defaultTtlMillis;
+
+    @Value("${app.cache.platform-metrics.time-to-live:300000}")
+    private long platformMetricsTtlMillis;
+
+    @Value("${app.cache.local.time-to-live:60000}")
+    private long localTtlMillis;
+
+    @Value("${app.cache.local.maximum-size:10000}")
+    private long localMaximumSize;
+
+    @Value("${app.cache.redis.retry-interval:30000}")
+    private long redisRetryIntervalMillis;
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofMillis(defaultTtlMillis))
+                .disableCachingNullValues();
+
+        // SCAN instead of KEYS so clearing a cache never blocks Redis
+        RedisCacheManager redisCacheManager = RedisCacheManager
+                .builder(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory, BatchStrategies.scan(1000)))
+                .cacheDefaults(defaults)
+                .withCacheConfiguration(CacheNames.PLATFORM_METRICS,
+                        defaults.entryTtl(Duration.ofMillis(platformMetricsTtlMillis)))
+                .initialCacheNames(Set.of(CacheNames.COMPANY_DASHBOARD_METRICS, CacheNames.PLATFORM_METRICS))
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        // Local tier is per node and cannot see other nodes' evictions, so keep its TTL short
+        CaffeineCacheManager localCacheManager = new CaffeineCacheManager();
+        localCacheManager.setCacheNames(List.of(CacheNames.COMPANY_DASHBOARD_METRICS, CacheNames.PLATFORM_METRICS));
+        localCacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(Duration.ofMillis(localTtlMillis)));
+        localCacheManager.setAllowNullValues(false);
+
+        return new FallbackCacheManager(redisCacheManager, localCacheManager,
+                Duration.ofMillis(redisRetryIntervalMillis));
+    }
+}
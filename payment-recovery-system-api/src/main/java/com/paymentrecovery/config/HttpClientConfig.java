@@ -0,0 +1,129 @@
+package com.paymentrecovery.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+
+/**
+ * HTTP client configuration for calling Python service
+ * A non-blocking Apache HttpClient 5 client over a pooled connection manager: connections to the
+ * Python service are kept alive and reused, and waiting for a response does not hold a thread
+ */
+@Configuration
+@Slf4j
+public class HttpClientConfig {
+
+    @Value("${app.python.extraction.url:http://localhost:8000}")
+    private String pythonServiceUrl;
+
+    @Value("${app.python.extraction.timeout:30000}")
+    private long responseTimeoutMs;
+
+    @Value("${app.http-client.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${app.http-client.http2:false}")
+    private boolean http2;
+
+    @Value("${app.http-client.io-threads:2}")
+    private int ioThreads;
+
+    @Value("${app.http-client.pool.max-total:100}")
+    private int maxTotal;
+
+    @Value("${app.http-client.pool.max-per-route:20}")
+    private int maxPerRoute;
+
+    @Value("${app.http-client.pool.python-max-per-route:64}")
+    private int pythonMaxPerRoute;
+
+    @Value("${app.http-client.pool.lease-timeout-ms:5000}")
+    private long leaseTimeoutMs;
+
+    @Value("${app.http-client.pool.idle-eviction-seconds:30}")
+    private long idleEvictionSeconds;
+
+    @Value("${app.http-client.pool.time-to-live-seconds:300}")
+    private long timeToLiveSeconds;
+
+    /**
+     * Connection pool shared by all outbound calls
+     * The Python service route gets its own limit, sized to the highest extraction concurrency
+     * limit so dispatch never waits for a connection
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingAsyncClientConnectionManager httpClientConnectionManager() {
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setTimeToLive(TimeValue.ofSeconds(timeToLiveSeconds))
+                        // Check connections that sat idle for a while before reusing them
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        // Routes carry explicit ports, so fill in the scheme default when the URL has none
+        URI pythonUri = URI.create(pythonServiceUrl);
+        int port = pythonUri.getPort() != -1 ? pythonUri.getPort() : "https".equals(pythonUri.getScheme()) ? 443 : 80;
+        HttpRoute pythonRoute = new HttpRoute(new HttpHost(pythonUri.getScheme(), pythonUri.getHost(), port));
+        connectionManager.setMaxPerRoute(pythonRoute, pythonMaxPerRoute);
+
+        log.info("HTTP connection pool: max {} connections, {} per route, {} to {}",
+                maxTotal, maxPerRoute, pythonMaxPerRoute, pythonRoute.getTargetHost());
+
+        return connectionManager;
+    }
+
+    /**
+     * Default request timeouts
+     * A request that sets its own config replaces these entirely, so it should start from a copy
+     */
+    @Bean
+    public RequestConfig httpRequestConfig() {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(leaseTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                .build();
+    }
+
+    /**
+     * Non-blocking HTTP client
+     * HTTP/2 (app.http-client.http2) is sent with prior knowledge, for services behind an h2c-capable server
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient httpAsyncClient(PoolingAsyncClientConnectionManager httpClientConnectionManager,
+                                                    RequestConfig httpRequestConfig) {
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(httpClientConnectionManager)
+                .setVersionPolicy(http2 ? HttpVersionPolicy.FORCE_HTTP_2 : HttpVersionPolicy.FORCE_HTTP_1)
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setIoThreadCount(ioThreads)
+                        .build())
+                .setDefaultRequestConfig(httpRequestConfig)
+                // Keep-alive follows the server's Keep-Alive header; idle and expired connections are closed in the background
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictionSeconds))
+                .evictExpiredConnections()
+                .build();
+        client.start();
+        return client;
+    }
+}
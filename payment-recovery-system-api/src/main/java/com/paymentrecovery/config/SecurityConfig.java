@@ -1,7 +1,9 @@
 package com.paymentrecovery.config;
 
+import com.paymentrecovery.security.BCryptCostCalibrator;
 import com.paymentrecovery.security.jwt.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -29,6 +31,15 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${app.security.password.target-hash-ms:250}")
+    private long targetHashMillis;
+
+    @Value("${app.security.password.min-bcrypt-cost:10}")
+    private int minBcryptCost;
+
+    @Value("${app.security.password.max-bcrypt-cost:14}")
+    private int maxBcryptCost;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -66,11 +77,13 @@ public class SecurityConfig {
 
     /**
      * Password encoder bean for encoding passwords
-     * Used by DataInitializer to encode admin password
+     * The BCrypt cost is calibrated at startup to the target hash time on this hardware;
+     * request-path hashing goes through PasswordHashingService
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(
+                BCryptCostCalibrator.calibrate(targetHashMillis, minBcryptCost, maxBcryptCost));
     }
 }
 
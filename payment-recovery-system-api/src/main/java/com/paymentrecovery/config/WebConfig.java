@@ -0,0 +1,55 @@
+package com.paymentrecovery.config;
+
+import com.paymentrecovery.security.CurrentCompanyArgumentResolver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Spring MVC configuration
+ * Registers the @CurrentCompany argument resolver and the open-EntityManager-in-view interceptor
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Endpoints that must not hold a pooled connection for the whole request
+     * A request-scoped EntityManager keeps the connection of its first query until the response is done:
+     * the stream writes for as long as the client keeps reading, and login and registration wait for
+     * password hashing
+     */
+    private static final String[] NO_OPEN_IN_VIEW_PATHS = {
+            "/api/invoices/pending-for-reminder/stream",
+            "/api/auth/login",
+            "/api/auth/register"
+    };
+
+    private final CurrentCompanyArgumentResolver currentCompanyArgumentResolver;
+
+    /**
+     * Open EntityManager in view, as Spring Boot registers it by default
+     * Declaring it here replaces Boot's registration so some endpoints can be left out
+     */
+    @Bean
+    public OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor() {
+        return new OpenEntityManagerInViewInterceptor();
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentCompanyArgumentResolver);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addWebRequestInterceptor(openEntityManagerInViewInterceptor())
+                .excludePathPatterns(NO_OPEN_IN_VIEW_PATHS);
+    }
+}
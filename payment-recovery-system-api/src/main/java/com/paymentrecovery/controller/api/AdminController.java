@@ -1,11 +1,18 @@
 package com.paymentrecovery.controller.api;
 
 import com.paymentrecovery.model.entity.Company;
+import com.paymentrecovery.model.enums.ExtractionJobStatus;
 import com.paymentrecovery.repository.CompanyRepository;
-import com.paymentrecovery.repository.InvoiceRepository;
 import com.paymentrecovery.repository.UserRepository;
+import com.paymentrecovery.scheduler.ExtractionJobWorker;
+import com.paymentrecovery.service.AdminService;
+import com.paymentrecovery.service.ExtractionCacheService;
+import com.paymentrecovery.service.ExtractionJobService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -29,7 +36,11 @@ public class AdminController {
 
     private final CompanyRepository companyRepository;
     private final UserRepository userRepository;
-    private final InvoiceRepository invoiceRepository;
+    private final AdminService adminService;
+    private final ExtractionJobService extractionJobService;
+    private final ExtractionCacheService extractionCacheService;
+    private final PoolingAsyncClientConnectionManager httpClientConnectionManager;
+    private final ExtractionJobWorker extractionJobWorker;
 
     /**
      * Get platform metrics for admin dashboard
@@ -38,35 +49,69 @@ public class AdminController {
     public ResponseEntity<Map<String, Object>> getPlatformMetrics() {
         log.info("Fetching platform metrics for admin dashboard");
         
-        Map<String, Object> metrics = new HashMap<>();
-        
-        // Company metrics
-        long totalCompanies = companyRepository.count();
-        long activeCompanies = companyRepository.count();
-        long inactiveCompanies = 0;
-        
-        // User metrics
-        long totalUsers = userRepository.count();
-        
-        // Invoice metrics (placeholder - implement when Invoice entity is ready)
-        long totalInvoices = invoiceRepository.count();
-        long pendingInvoices = 0;
-        long paidInvoices = 0;
-        
-        // Revenue (placeholder)
-        double totalRevenue = 0.0;
-        
-        metrics.put("totalCompanies", totalCompanies);
-        metrics.put("activeCompanies", activeCompanies);
-        metrics.put("inactiveCompanies", inactiveCompanies);
-        metrics.put("totalUsers", totalUsers);
-        metrics.put("totalInvoices", totalInvoices);
-        metrics.put("pendingInvoices", pendingInvoices);
-        metrics.put("paidInvoices", paidInvoices);
-        metrics.put("totalRevenue", totalRevenue);
-        metrics.put("recentActivity", new Object[0]); // Placeholder
-        
-        return ResponseEntity.ok(metrics);
+        return ResponseEntity.ok(adminService.getPlatformMetrics());
+    }
+
+    /**
+     * Get extraction job queue depth per status
+     */
+    @GetMapping("/extraction-jobs")
+    public ResponseEntity<Map<ExtractionJobStatus, Long>> getExtractionJobCounts() {
+        log.info("Fetching extraction job counts");
+
+        return ResponseEntity.ok(extractionJobService.countByStatus());
+    }
+
+    /**
+     * Get this node's extraction dispatch state: adaptive concurrency limit, requests in flight
+     * and circuit breaker state
+     */
+    @GetMapping("/extraction-dispatch")
+    public ResponseEntity<Map<String, Object>> getExtractionDispatchState() {
+        return ResponseEntity.ok(extractionJobWorker.getDispatchState());
+    }
+
+    /**
+     * Get extraction result cache statistics: hits, misses and hit rate since startup, and the
+     * number of results cached for the current extractor version
+     */
+    @GetMapping("/extraction-cache")
+    public ResponseEntity<Map<String, Object>> getExtractionCacheStats() {
+        log.info("Fetching extraction cache statistics");
+
+        return ResponseEntity.ok(extractionCacheService.getStats());
+    }
+
+    /**
+     * Re-queue a dead-lettered extraction job with a fresh attempt budget
+     */
+    @PostMapping("/extraction-jobs/{id}/retry")
+    public ResponseEntity<Void> retryExtractionJob(@PathVariable Long id) {
+        log.info("Retrying dead extraction job - ID: {}", id);
+
+        return extractionJobService.retryDead(id)
+            ? ResponseEntity.accepted().build()
+            : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Get outbound HTTP connection pool statistics, in total and per route
+     * A non-zero pending count means callers are waiting to lease a connection
+     */
+    @GetMapping("/http-pool")
+    public ResponseEntity<Map<String, Object>> getHttpPoolStats() {
+        log.info("Fetching HTTP connection pool statistics");
+
+        Map<String, Object> routes = new HashMap<>();
+        for (HttpRoute route : httpClientConnectionManager.getRoutes()) {
+            routes.put(route.getTargetHost().toURI(), toMap(httpClientConnectionManager.getStats(route)));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("total", toMap(httpClientConnectionManager.getTotalStats()));
+        response.put("routes", routes);
+
+        return ResponseEntity.ok(response);
     }
 
     /**
@@ -197,5 +242,13 @@ public class AdminController {
         
         return ResponseEntity.ok(response);
     }
-}
 
+    private Map<String, Object> toMap(PoolStats stats) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("leased", stats.getLeased());
+        map.put("pending", stats.getPending());
+        map.put("available", stats.getAvailable());
+        map.put("max", stats.getMax());
+        return map;
+    }
+}
@@ -2,13 +2,16 @@ package com.paymentrecovery.controller.api;
 
 import com.paymentrecovery.model.dto.request.CompanyRegistrationRequest;
 import com.paymentrecovery.model.dto.request.LoginRequest;
+import com.paymentrecovery.model.dto.request.RefreshTokenRequest;
 import com.paymentrecovery.model.dto.response.CompanyRegistrationResponse;
 import com.paymentrecovery.model.dto.response.LoginResponse;
+import com.paymentrecovery.security.PasswordHashingBusyException;
 import com.paymentrecovery.service.AuthService;
 import com.paymentrecovery.service.CompanyRegistrationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -39,12 +42,45 @@ public class AuthController {
             log.info("Login attempt for user: {}", loginRequest.getUsername());
             LoginResponse response = authService.login(loginRequest);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            log.warn("Login rejected for user: {} - {}", loginRequest.getUsername(), e.getMessage());
+            return serviceUnavailable(e);
         } catch (RuntimeException e) {
             log.error("Login failed for user: {} - {}", loginRequest.getUsername(), e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
     }
 
+    /**
+     * Refresh token endpoint
+     * Exchanges a refresh token for a new access token and a new refresh token, without a password check
+     * 
+     * @param request Refresh token issued by login or a previous refresh
+     * @return LoginResponse with new tokens and user info
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            LoginResponse response = authService.refresh(request);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            log.warn("Token refresh failed - {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
+    /**
+     * Logout endpoint
+     * Revokes the refresh token; the access token stays valid until it expires
+     * 
+     * @param request Refresh token to revoke
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        authService.logout(request);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Company registration endpoint
      * Public endpoint - no authentication required
@@ -58,6 +94,9 @@ public class AuthController {
             log.info("Company registration request for: {}", registrationRequest.getCompanyName());
             CompanyRegistrationResponse response = registrationService.registerCompany(registrationRequest);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (PasswordHashingBusyException e) {
+            log.warn("Registration rejected for: {} - {}", registrationRequest.getCompanyName(), e.getMessage());
+            return serviceUnavailable(e);
         } catch (RuntimeException e) {
             log.error("Registration failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -71,5 +110,13 @@ public class AuthController {
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Auth service is running");
     }
-}
 
+    /**
+     * 503 with Retry-After, when password hashing capacity is exhausted
+     */
+    private <T> ResponseEntity<T> serviceUnavailable(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
+    }
+}
@@ -7,9 +7,10 @@ import com.paymentrecovery.model.entity.Invoice;
 import com.paymentrecovery.model.enums.InvoiceStatus;
 import com.paymentrecovery.repository.CompanyRepository;
 import com.paymentrecovery.repository.InvoiceRepository;
-import com.paymentrecovery.security.jwt.JwtTokenProvider;
+import com.paymentrecovery.security.CurrentCompany;
 import com.paymentrecovery.service.CompanyService;
 import com.paymentrecovery.service.PaymentService;
+import com.paymentrecovery.util.InvoiceCursor;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -19,19 +20,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.servlet.http.HttpServletRequest;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Company Controller
@@ -49,7 +50,9 @@ public class CompanyController {
     private final InvoiceRepository invoiceRepository;
     private final CompanyRepository companyRepository;
     private final PaymentService paymentService;
-    private final JwtTokenProvider jwtTokenProvider;
+
+    @Value("${app.pagination.max-page-size:100}")
+    private int maxPageSize;
 
     /**
      * Get company dashboard metrics
@@ -76,23 +79,10 @@ public class CompanyController {
                     description = "Internal server error"
             )
     })
-    public ResponseEntity<Map<String, Object>> getDashboardMetrics(HttpServletRequest request) {
+    public ResponseEntity<Map<String, Object>> getDashboardMetrics(@CurrentCompany Long companyId) {
         log.info("Received request for company dashboard metrics");
 
         try {
-            // Get company ID from JWT token
-            String token = getTokenFromRequest(request);
-            if (token == null) {
-                log.warn("No token found in request");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-            }
-
-            Long companyId = jwtTokenProvider.getCompanyIdFromToken(token);
-            if (companyId == null) {
-                log.warn("No company ID found in token");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-            }
-
             Map<String, Object> metrics = companyService.getDashboardMetrics(companyId);
             
             log.info("Successfully retrieved dashboard metrics for company ID: {}", companyId);
@@ -107,17 +97,24 @@ public class CompanyController {
     /**
      * Get invoices for the logged-in company
      * Supports pagination and status filtering
+     * Passing the after parameter switches to cursor (keyset) mode: no total count,
+     * constant cost per page at any depth; an empty value requests the first slice
      */
     @GetMapping("/invoices")
     @Operation(
             summary = "Get company invoices",
-            description = "Retrieves invoices for the authenticated company with pagination and optional status filter."
+            description = "Retrieves invoices for the authenticated company with pagination and optional status filter. " +
+                         "Pass 'after' (empty for the first slice, then the returned nextCursor) for cursor-based paging."
     )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
                     description = "Successfully retrieved invoices"
             ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor"
+            ),
             @ApiResponse(
                     responseCode = "401",
                     description = "Unauthorized - Invalid or missing token"
@@ -128,75 +125,58 @@ public class CompanyController {
             )
     })
     public ResponseEntity<Map<String, Object>> getInvoices(
-            HttpServletRequest request,
+            @CurrentCompany Long companyId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String search
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String after
     ) {
-        log.info("Received request for company invoices - page: {}, size: {}, status: {}", page, size, status);
+        log.info("Received request for company invoices - page: {}, size: {}, status: {}, cursor mode: {}",
+                page, size, status, after != null);
 
         try {
-            // Get company ID from JWT token
-            String token = getTokenFromRequest(request);
-            if (token == null) {
-                log.warn("No token found in request");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-            }
-
-            Long companyId = jwtTokenProvider.getCompanyIdFromToken(token);
-            if (companyId == null) {
-                log.warn("No company ID found in token");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-            }
-
-            // Build pageable
-            Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-
-            // Get invoices based on status filter
-            List<Invoice> invoices;
-            long total;
+            size = Math.min(Math.max(size, 1), maxPageSize);
 
+            // Resolve status filter (invalid or ALL means no status filter)
+            InvoiceStatus invoiceStatus = null;
             if (status != null && !status.isEmpty() && !status.equalsIgnoreCase("ALL")) {
                 try {
-                    InvoiceStatus invoiceStatus = InvoiceStatus.valueOf(status.toUpperCase());
-                    invoices = invoiceRepository.findByCompanyIdAndStatus(companyId, invoiceStatus);
-                    total = invoiceRepository.countByCompanyIdAndStatus(companyId, invoiceStatus);
+                    invoiceStatus = InvoiceStatus.valueOf(status.toUpperCase());
                 } catch (IllegalArgumentException e) {
                     log.warn("Invalid status filter: {}", status);
-                    invoices = invoiceRepository.findByCompanyId(companyId);
-                    total = invoiceRepository.countByCompanyId(companyId);
                 }
-            } else {
-                invoices = invoiceRepository.findByCompanyId(companyId);
-                total = invoiceRepository.countByCompanyId(companyId);
             }
 
-            // Apply search filter if provided
-            if (search != null && !search.trim().isEmpty()) {
-                String searchLower = search.toLowerCase();
-                invoices = invoices.stream()
-                        .filter(invoice -> 
-                            (invoice.getInvoiceNumber() != null && invoice.getInvoiceNumber().toLowerCase().contains(searchLower)) ||
-                            (invoice.getCustomer() != null && invoice.getCustomer().getCustomerName() != null && 
-                             invoice.getCustomer().getCustomerName().toLowerCase().contains(searchLower))
-                        )
-                        .collect(Collectors.toList());
-                total = invoices.size();
+            // Cursor mode: seek past the cursor position, no COUNT query
+            if (after != null) {
+                InvoiceCursor cursor;
+                try {
+                    cursor = after.isBlank() ? null : InvoiceCursor.decode(after);
+                } catch (IllegalArgumentException e) {
+                    log.warn("Invalid invoice cursor: {}", after);
+                    return ResponseEntity.badRequest().build();
+                }
+                return ResponseEntity.ok(getInvoiceSlice(companyId, invoiceStatus, search, cursor, size));
             }
 
-            // Apply pagination manually (since we're using List, not Page)
-            int start = page * size;
-            int end = Math.min(start + size, invoices.size());
-            List<Invoice> pagedInvoices = start < invoices.size() ? invoices.subList(start, end) : List.of();
+            // Build pageable (id breaks createdAt ties so pages stay stable)
+            page = Math.max(page, 0);
+            Pageable pageable = PageRequest.of(page, size,
+                    Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id")));
+
+            // Page, filter and search in the database
+            Page<Invoice> invoicePage = invoiceRepository.findPageByCompanyId(
+                    companyId, invoiceStatus, toSearchPattern(search), pageable);
+            long total = invoicePage.getTotalElements();
 
             // Build response
             Map<String, Object> response = new HashMap<>();
-            response.put("invoices", pagedInvoices);
+            response.put("invoices", invoicePage.getContent());
             response.put("total", total);
             response.put("page", page);
             response.put("size", size);
-            response.put("totalPages", (int) Math.ceil((double) total / size));
+            response.put("totalPages", invoicePage.getTotalPages());
 
             log.info("Successfully retrieved {} invoices for company ID: {} (showing page {})", 
                     total, companyId, page);
@@ -232,23 +212,12 @@ public class CompanyController {
             )
     })
     public ResponseEntity<Invoice> getInvoiceById(
-            HttpServletRequest request,
+            @CurrentCompany Long companyId,
             @PathVariable Long invoiceId
     ) {
         log.info("Received request for invoice ID: {}", invoiceId);
 
         try {
-            // Get company ID from JWT token
-            String token = getTokenFromRequest(request);
-            if (token == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-            }
-
-            Long companyId = jwtTokenProvider.getCompanyIdFromToken(token);
-            if (companyId == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-            }
-
             // Get invoice with eagerly fetched relationships
             Invoice invoice = invoiceRepository.findByIdWithRelationships(invoiceId);
 
@@ -299,23 +268,10 @@ public class CompanyController {
                     description = "Internal server error"
             )
     })
-    public ResponseEntity<Company> getCompanyProfile(HttpServletRequest request) {
+    public ResponseEntity<Company> getCompanyProfile(@CurrentCompany Long companyId) {
         log.info("Received request for company profile");
 
         try {
-            // Get company ID from JWT token
-            String token = getTokenFromRequest(request);
-            if (token == null) {
-                log.warn("No token found in request");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-            }
-
-            Long companyId = jwtTokenProvider.getCompanyIdFromToken(token);
-            if (companyId == null) {
-                log.warn("No company ID found in token");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-            }
-
             // Get company
             Company company = companyRepository.findById(companyId)
                     .orElse(null);
@@ -372,26 +328,13 @@ public class CompanyController {
             )
     })
     public ResponseEntity<Invoice> markInvoiceAsPaid(
-            HttpServletRequest request,
+            @CurrentCompany Long companyId,
             @PathVariable Long invoiceId,
             @Valid @RequestBody MarkInvoicePaidRequest markPaidRequest
     ) {
         log.info("Received request to mark invoice ID: {} as paid", invoiceId);
 
         try {
-            // Get company ID from JWT token
-            String token = getTokenFromRequest(request);
-            if (token == null) {
-                log.warn("No token found in request");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-            }
-
-            Long companyId = jwtTokenProvider.getCompanyIdFromToken(token);
-            if (companyId == null) {
-                log.warn("No company ID found in token");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-            }
-
             // Get invoice and verify it belongs to company
             Invoice invoice = invoiceRepository.findByIdWithRelationships(invoiceId);
             if (invoice == null) {
@@ -453,25 +396,12 @@ public class CompanyController {
             )
     })
     public ResponseEntity<Company> updateCompanyProfile(
-            HttpServletRequest request,
+            @CurrentCompany Long companyId,
             @Valid @RequestBody UpdateCompanyProfileRequest updateRequest
     ) {
         log.info("Received request to update company profile");
 
         try {
-            // Get company ID from JWT token
-            String token = getTokenFromRequest(request);
-            if (token == null) {
-                log.warn("No token found in request");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-            }
-
-            Long companyId = jwtTokenProvider.getCompanyIdFromToken(token);
-            if (companyId == null) {
-                log.warn("No company ID found in token");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-            }
-
             // Get company
             Company company = companyRepository.findById(companyId)
                     .orElse(null);
@@ -501,14 +431,57 @@ public class CompanyController {
     }
 
     /**
-     * Extract JWT token from request header
+     * Load one keyset slice of company invoices
+     *
+     * @param companyId Company ID
+     * @param status Invoice status filter, or null
+     * @param search Raw search text, or null
+     * @param cursor Position after which to read, or null for the first slice
+     * @param size Slice size
+     * @return Response map with invoices, hasNext and nextCursor
      */
-    private String getTokenFromRequest(HttpServletRequest request) {
-        String bearerToken = request.getHeader("Authorization");
-        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
+    private Map<String, Object> getInvoiceSlice(
+            Long companyId, InvoiceStatus status, String search, InvoiceCursor cursor, int size) {
+        Pageable pageable = PageRequest.of(0, size);
+        String searchPattern = toSearchPattern(search);
+
+        Slice<Invoice> slice = cursor == null
+                ? invoiceRepository.findFirstSliceByCompanyId(companyId, status, searchPattern, pageable)
+                : invoiceRepository.findSliceByCompanyIdAfter(
+                        companyId, status, searchPattern, cursor.createdAt(), cursor.id(), pageable);
+
+        List<Invoice> invoices = slice.getContent();
+        String nextCursor = slice.hasNext() && !invoices.isEmpty()
+                ? InvoiceCursor.after(invoices.get(invoices.size() - 1)).encode()
+                : null;
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("invoices", invoices);
+        response.put("size", size);
+        response.put("hasNext", slice.hasNext());
+        response.put("nextCursor", nextCursor);
+
+        log.info("Retrieved {} invoices for company ID: {} in cursor mode (hasNext: {})",
+                invoices.size(), companyId, slice.hasNext());
+
+        return response;
+    }
+
+    /**
+     * Build a lowercased LIKE pattern for the invoice search filter
+     * Escapes LIKE wildcards so user input is matched literally
+     *
+     * @param search Raw search text
+     * @return LIKE pattern using '!' as escape character, or null if search is blank
+     */
+    private String toSearchPattern(String search) {
+        if (search == null || search.trim().isEmpty()) {
+            return null;
         }
-        return null;
+        String escaped = search.trim().toLowerCase()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return "%" + escaped + "%";
     }
 }
-
@@ -1,6 +1,7 @@
 package com.paymentrecovery.controller.api;
 
 import com.paymentrecovery.model.dto.response.DocumentResponse;
+import com.paymentrecovery.security.CurrentCompany;
 import com.paymentrecovery.service.DocumentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -34,7 +35,7 @@ public class DocumentController {
      * Accepts PDF, Images, DOC, and Excel files
      *
      * @param file Uploaded file
-     * @param companyId Company ID (required)
+     * @param companyId Company ID of the authenticated user
      * @param invoiceId Optional invoice ID
      * @param description Optional description
      * @return DocumentResponse with saved document information
@@ -67,7 +68,7 @@ public class DocumentController {
     })
     public ResponseEntity<DocumentResponse> uploadDocument(
             @RequestParam("file") MultipartFile file,
-            @RequestParam("companyId") Long companyId,
+            @CurrentCompany Long companyId,
             @RequestParam(value = "invoiceId", required = false) Long invoiceId,
             @RequestParam(value = "description", required = false) String description
     ) {
@@ -1,10 +1,15 @@
 package com.paymentrecovery.controller.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.paymentrecovery.model.dto.request.CreateInvoiceRequest;
+import com.paymentrecovery.model.dto.request.ExtractedInvoiceDataBatchItem;
 import com.paymentrecovery.model.dto.request.ExtractedInvoiceDataRequest;
 import com.paymentrecovery.model.dto.request.MarkInvoicePaidRequest;
+import com.paymentrecovery.model.dto.response.ExtractedDataBatchItemResult;
+import com.paymentrecovery.model.dto.response.ExtractedDataBatchResponse;
 import com.paymentrecovery.model.dto.response.InvoiceReminderDto;
 import com.paymentrecovery.model.entity.Invoice;
+import com.paymentrecovery.security.CurrentCompany;
 import com.paymentrecovery.service.InvoiceService;
 import com.paymentrecovery.service.PaymentService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,15 +18,21 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +50,10 @@ public class InvoiceController {
 
     private final InvoiceService invoiceService;
     private final PaymentService paymentService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.invoice.extracted-data-batch.chunk-size:1000}")
+    private int extractedDataChunkSize;
 
     /**
      * Get all pending invoices for reminders
@@ -78,6 +93,61 @@ public class InvoiceController {
         }
     }
 
+    /**
+     * Stream all pending invoices for reminders as newline-delimited JSON
+     * One InvoiceReminderDto per line, written page by page as keyset pages are read,
+     * so clients can start processing before the last page is read
+     * No transaction or pooled connection is held while writing: each page is its own short query,
+     * and this path is left out of open-EntityManager-in-view (WebConfig)
+     *
+     * @param response HTTP response to write to
+     * @throws IOException if the client connection fails before streaming starts
+     */
+    @GetMapping(value = "/pending-for-reminder/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Stream pending invoices for reminders",
+            description = "Streams all invoices with PENDING status and a due date as application/x-ndjson, " +
+                         "one reminder record per line in due-date order. Memory use is constant."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Pending invoices streamed",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = InvoiceReminderDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error"
+            )
+    })
+    public void streamPendingInvoicesForReminder(HttpServletResponse response) throws IOException {
+        log.info("Received request to stream pending invoices for reminders");
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ServletOutputStream out = response.getOutputStream();
+        try {
+            long count = invoiceService.streamPendingInvoicesForReminders(dto -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(dto));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+
+            log.info("Successfully streamed {} pending invoices for reminders", count);
+        } catch (Exception e) {
+            log.error("Error streaming pending invoices for reminders", e);
+            // Once lines have been sent the status can no longer change; the client sees a truncated stream
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
+        }
+    }
+
     /**
      * Mark an invoice as paid
      * Creates a payment record and updates the invoice status to PAID
@@ -137,7 +207,7 @@ public class InvoiceController {
      * Accepts PDF, PNG, JPG, DOC, DOCX, XLS, XLSX files
      *
      * @param file Uploaded file
-     * @param companyId Company ID (required)
+     * @param companyId Company ID of the authenticated user
      * @param customerId Optional customer ID
      * @return Invoice ID of created DRAFT invoice
      */
@@ -168,7 +238,7 @@ public class InvoiceController {
     })
     public ResponseEntity<Map<String, Object>> uploadInvoiceFile(
             @RequestParam("file") MultipartFile file,
-            @RequestParam("companyId") Long companyId,
+            @CurrentCompany Long companyId,
             @RequestParam(value = "customerId", required = false) Long customerId
     ) {
         log.info(
@@ -210,7 +280,7 @@ public class InvoiceController {
      * Used when user enters invoice data directly
      *
      * @param request CreateInvoiceRequest with invoice details
-     * @param companyId Company ID (from JWT token in production, query param for now)
+     * @param companyId Company ID of the authenticated user
      * @return Invoice ID of created DRAFT invoice
      */
     @PostMapping("/create")
@@ -239,7 +309,7 @@ public class InvoiceController {
     })
     public ResponseEntity<Map<String, Object>> createInvoice(
             @Valid @RequestBody CreateInvoiceRequest request,
-            @RequestParam("companyId") Long companyId
+            @CurrentCompany Long companyId
     ) {
         log.info("Received manual invoice creation request for company: {}", companyId);
 
@@ -323,6 +393,56 @@ public class InvoiceController {
         }
     }
 
+    /**
+     * Store extracted invoice data for many invoices from Python service
+     * Items are stored in chunks, one transaction per chunk; invoices remain in DRAFT status.
+     * Only invoices of the caller's company are stored; others are reported as not found
+     *
+     * @param companyId Company ID of the authenticated user
+     * @param items Extracted data per invoice
+     * @return ExtractedDataBatchResponse with one result per item
+     */
+    @PostMapping("/extracted-data/batch")
+    @Operation(
+            summary = "Store extracted invoice data in bulk",
+            description = "Receives extracted data for many invoices from Python service, e.g. for re-extraction " +
+                         "backfills. Items for unknown or non-DRAFT invoices, or for invoices of another company, " +
+                         "are rejected individually; " +
+                         "the response reports the outcome of every item."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch processed; see per-item results",
+                    content = @Content(schema = @Schema(implementation = ExtractedDataBatchResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid request body"
+            )
+    })
+    public ResponseEntity<ExtractedDataBatchResponse> storeExtractedDataBatch(
+            @CurrentCompany Long companyId,
+            @RequestBody List<ExtractedInvoiceDataBatchItem> items) {
+        log.info("Received extracted data batch of {} invoices", items.size());
+
+        List<ExtractedDataBatchItemResult> results = new ArrayList<>(items.size());
+        for (int start = 0; start < items.size(); start += extractedDataChunkSize) {
+            int end = Math.min(start + extractedDataChunkSize, items.size());
+            results.addAll(storeExtractedDataChunk(companyId, items.subList(start, end), start));
+        }
+
+        int stored = (int) results.stream().filter(ExtractedDataBatchItemResult::getStored).count();
+        log.info("Stored extracted data for {} of {} invoices in batch", stored, results.size());
+
+        return ResponseEntity.ok(ExtractedDataBatchResponse.builder()
+                .received(results.size())
+                .stored(stored)
+                .rejected(results.size() - stored)
+                .results(results)
+                .build());
+    }
+
     /**
      * Confirm a DRAFT invoice and activate it
      * Moves invoice from DRAFT to PENDING status (becomes eligible for reminders)
@@ -386,7 +506,7 @@ public class InvoiceController {
      * Get all DRAFT invoices for review
      * Returns invoices that need confirmation before becoming active
      *
-     * @param companyId Company ID (from JWT token in production)
+     * @param companyId Company ID of the authenticated user
      * @return List of DRAFT invoices
      */
     @GetMapping("/drafts")
@@ -405,7 +525,7 @@ public class InvoiceController {
             )
     })
     public ResponseEntity<List<Invoice>> getDraftInvoices(
-            @RequestParam Long companyId) {
+            @CurrentCompany Long companyId) {
         log.info("Received request to get DRAFT invoices for company ID: {}", companyId);
 
         try {
@@ -420,5 +540,29 @@ public class InvoiceController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
 
+    /**
+     * Store one chunk of extracted data in its own transaction
+     * A failed chunk is reported item by item; earlier chunks stay committed
+     */
+    private List<ExtractedDataBatchItemResult> storeExtractedDataChunk(Long companyId,
+                                                                       List<ExtractedInvoiceDataBatchItem> chunk,
+                                                                       int firstIndex) {
+        try {
+            return invoiceService.storeExtractedDataBatch(companyId, chunk, firstIndex);
+        } catch (Exception e) {
+            log.error("Error storing extracted data batch chunk starting at index {}", firstIndex, e);
+            List<ExtractedDataBatchItemResult> failed = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                ExtractedInvoiceDataBatchItem item = chunk.get(i);
+                failed.add(ExtractedDataBatchItemResult.builder()
+                        .index(firstIndex + i)
+                        .invoiceId(item != null ? item.getInvoiceId() : null)
+                        .stored(false)
+                        .error("Failed to store extracted data")
+                        .build());
+            }
+            return failed;
+        }
+    }
+}
@@ -1,36 +1,96 @@
 package com.paymentrecovery.controller.api;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.paymentrecovery.model.dto.request.CreateReminderLogRequest;
+import com.paymentrecovery.model.dto.response.DueReminderDto;
+import com.paymentrecovery.model.dto.response.ReminderLogBatchItemResult;
+import com.paymentrecovery.model.dto.response.ReminderLogBatchResponse;
 import com.paymentrecovery.model.dto.response.ReminderLogResponse;
 import com.paymentrecovery.service.ReminderLogService;
+import com.paymentrecovery.service.ReminderSchedulingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * REST Controller for Reminder operations
- * Handles HTTP requests related to reminder logs
+ * Handles HTTP requests related to reminder logs and due reminders
  */
 @RestController
 @RequestMapping("/api/reminders")
 @RequiredArgsConstructor
 @Slf4j
-@Tag(name = "Reminder", description = "Reminder log management APIs")
+@Tag(name = "Reminder", description = "Reminder scheduling and log management APIs")
 public class ReminderController {
 
     private final ReminderLogService reminderLogService;
+    private final ReminderSchedulingService reminderSchedulingService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.reminders.log-batch.chunk-size:1000}")
+    private int batchChunkSize;
+
+    /**
+     * Get the reminders that are due to be sent now
+     * Each pending invoice appears at most once, with the reminder type to send
+     * A reminder stays in this list until it is logged via POST /api/reminders/log
+     *
+     * @return List of DueReminderDto
+     */
+    @GetMapping("/due")
+    @Operation(
+            summary = "Get due reminders",
+            description = "Retrieves the PENDING invoices whose next reminder (GENTLE at T-5, DUE at T, " +
+                         "FIRM at T+7, ESCALATION at T+15) is due today or overdue, with the reminder type to send."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved due reminders",
+                    content = @Content(schema = @Schema(implementation = DueReminderDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error"
+            )
+    })
+    public ResponseEntity<List<DueReminderDto>> getDueReminders() {
+        log.info("Received request to get due reminders");
+
+        try {
+            List<DueReminderDto> dueReminders = reminderSchedulingService.getDueReminders(LocalDate.now());
+
+            log.info("Successfully retrieved {} due reminders", dueReminders.size());
+
+            return ResponseEntity.ok(dueReminders);
+        } catch (Exception e) {
+            log.error("Error retrieving due reminders", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
 
     /**
      * Log a reminder that was sent
@@ -77,5 +137,141 @@ public class ReminderController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
 
+    /**
+     * Log a batch of reminders sent, submitted as a JSON array
+     * Items are stored in chunks, one transaction per chunk, using JDBC batch inserts
+     *
+     * @param requests Reminder log entries
+     * @return ReminderLogBatchResponse with one result per item
+     */
+    @PostMapping(value = "/log/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "Log a batch of reminders",
+            description = "Creates reminder log entries for a JSON array of reminders. " +
+                         "Invalid items are rejected individually; the response reports the outcome of every item."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch processed; see per-item results",
+                    content = @Content(schema = @Schema(implementation = ReminderLogBatchResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid request body"
+            )
+    })
+    public ResponseEntity<ReminderLogBatchResponse> logReminderBatch(
+            @RequestBody List<CreateReminderLogRequest> requests) {
+        log.info("Received request to log batch of {} reminders", requests.size());
+
+        List<ReminderLogBatchItemResult> results = new ArrayList<>(requests.size());
+        for (int start = 0; start < requests.size(); start += batchChunkSize) {
+            int end = Math.min(start + batchChunkSize, requests.size());
+            results.addAll(storeChunk(requests.subList(start, end), start));
+        }
+
+        return ResponseEntity.ok(toBatchResponse(results));
+    }
+
+    /**
+     * Log a batch of reminders sent, submitted as newline-delimited JSON
+     * One CreateReminderLogRequest per line; the body is read and stored chunk by chunk,
+     * so arbitrarily large batches never need to be held in memory as a whole
+     *
+     * @param request HTTP request to read the NDJSON body from
+     * @return ReminderLogBatchResponse with one result per non-blank line, indexed among non-blank lines
+     * @throws IOException if the request body cannot be read
+     */
+    @PostMapping(value = "/log/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Log a batch of reminders (NDJSON)",
+            description = "Creates reminder log entries from an application/x-ndjson body, one reminder per line. " +
+                         "Malformed or invalid lines are rejected individually. Blank lines are skipped; " +
+                         "result indexes count only non-blank lines."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch processed; see per-item results",
+                    content = @Content(schema = @Schema(implementation = ReminderLogBatchResponse.class))
+            )
+    })
+    public ResponseEntity<ReminderLogBatchResponse> logReminderBatchNdjson(HttpServletRequest request)
+            throws IOException {
+        log.info("Received request to log NDJSON batch of reminders");
+
+        List<ReminderLogBatchItemResult> results = new ArrayList<>();
+        List<CreateReminderLogRequest> chunk = new ArrayList<>(batchChunkSize);
+        int index = 0;
+        BufferedReader reader = request.getReader();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(parseLine(line));
+            if (chunk.size() == batchChunkSize) {
+                results.addAll(storeChunk(chunk, index));
+                index += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(storeChunk(chunk, index));
+        }
+
+        return ResponseEntity.ok(toBatchResponse(results));
+    }
+
+    /**
+     * Parse one NDJSON line
+     *
+     * @return Parsed request, or null if the line is not a valid reminder log entry
+     */
+    private CreateReminderLogRequest parseLine(String line) {
+        try {
+            return objectMapper.readValue(line, CreateReminderLogRequest.class);
+        } catch (JsonProcessingException e) {
+            log.debug("Skipping malformed reminder log line: {}", e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Store one chunk in its own transaction
+     * A failed chunk is reported item by item; earlier chunks stay committed
+     */
+    private List<ReminderLogBatchItemResult> storeChunk(List<CreateReminderLogRequest> chunk, int firstIndex) {
+        try {
+            return reminderLogService.createReminderLogs(chunk, firstIndex);
+        } catch (Exception e) {
+            log.error("Error logging reminder batch chunk starting at index {}", firstIndex, e);
+            List<ReminderLogBatchItemResult> failed = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                CreateReminderLogRequest item = chunk.get(i);
+                failed.add(ReminderLogBatchItemResult.builder()
+                        .index(firstIndex + i)
+                        .invoiceId(item != null ? item.getInvoiceId() : null)
+                        .created(false)
+                        .error("Failed to store reminder log")
+                        .build());
+            }
+            return failed;
+        }
+    }
+
+    private ReminderLogBatchResponse toBatchResponse(List<ReminderLogBatchItemResult> results) {
+        int created = (int) results.stream().filter(ReminderLogBatchItemResult::getCreated).count();
+
+        log.info("Logged {} of {} reminders in batch", created, results.size());
+
+        return ReminderLogBatchResponse.builder()
+                .received(results.size())
+                .created(created)
+                .rejected(results.size() - created)
+                .results(results)
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.paymentrecovery.event;
+
+import com.paymentrecovery.model.enums.InvoiceStatus;
+
+/**
+ * Published when an invoice is created or changes status
+ * Listeners that must only see committed data use @TransactionalEventListener
+ *
+ * @param invoiceId Invoice ID
+ * @param companyId Company the invoice belongs to
+ * @param previousStatus Status before the change, or null for a new invoice
+ * @param newStatus Status after the change
+ */
+public record InvoiceChangedEvent(Long invoiceId, Long companyId,
+                                  InvoiceStatus previousStatus, InvoiceStatus newStatus) {
+
+    /**
+     * Check whether the change can move company dashboard figures
+     * Dashboard metrics only cover PENDING and PAID invoices
+     *
+     * @return True if either side of the transition is PENDING or PAID
+     */
+    public boolean affectsDashboard() {
+        return isDashboardStatus(previousStatus) || isDashboardStatus(newStatus);
+    }
+
+    private static boolean isDashboardStatus(InvoiceStatus status) {
+        return status == InvoiceStatus.PENDING || status == InvoiceStatus.PAID;
+    }
+}
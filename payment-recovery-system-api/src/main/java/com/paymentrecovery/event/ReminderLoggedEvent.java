@@ -0,0 +1,12 @@
+package com.paymentrecovery.event;
+
+import com.paymentrecovery.model.enums.ReminderType;
+
+/**
+ * Published when a sent reminder has been logged for an invoice
+ *
+ * @param invoiceId Invoice ID
+ * @param reminderType Reminder type that was sent
+ */
+public record ReminderLoggedEvent(Long invoiceId, ReminderType reminderType) {
+}
@@ -0,0 +1,19 @@
+package com.paymentrecovery.model.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for batched invoice data extraction
+ * Sent to Python service; one item per invoice
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtractInvoiceBatchRequest {
+
+    private List<ExtractInvoiceDataRequest> items;
+}
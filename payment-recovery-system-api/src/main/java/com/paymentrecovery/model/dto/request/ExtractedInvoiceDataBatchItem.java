@@ -0,0 +1,24 @@
+package com.paymentrecovery.model.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One item of an extracted-data batch
+ * Built from the batch extraction response, or posted to the batch endpoint in the same shape
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtractedInvoiceDataBatchItem {
+
+    @NotNull(message = "Invoice ID is required")
+    private Long invoiceId;
+
+    @NotNull(message = "Extracted data is required")
+    @Valid
+    private ExtractedInvoiceDataRequest extractedData;
+}
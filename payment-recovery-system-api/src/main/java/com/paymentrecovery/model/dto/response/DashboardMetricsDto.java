@@ -0,0 +1,24 @@
+package com.paymentrecovery.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for company dashboard metrics
+ * Filled by a single conditional-aggregation query over the company's invoices
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardMetricsDto {
+
+    private long pendingInvoices;
+    private long paidInvoices;
+    private BigDecimal pendingAmount;
+    private long overdueInvoices;
+    private BigDecimal overdueAmount;
+    private BigDecimal moneyRecoveredThisMonth;
+}
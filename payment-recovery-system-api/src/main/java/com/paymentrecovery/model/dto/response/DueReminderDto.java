@@ -0,0 +1,32 @@
+package com.paymentrecovery.model.dto.response;
+
+import com.paymentrecovery.model.enums.ReminderType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO for a reminder that is due to be sent now
+ * Invoice reminder data plus the reminder type chosen by the scheduler
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DueReminderDto {
+
+    private Long id;
+    private String invoiceNumber;
+    private LocalDate dueDate;
+    private BigDecimal amount;
+    private Long companyId;
+    private String customerName;
+    private String customerEmail;
+    private String customerPhone;
+    private ReminderType reminderType;
+    private LocalDate reminderDate;
+}
@@ -0,0 +1,24 @@
+package com.paymentrecovery.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item in an extracted-data batch
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtractedDataBatchItemResult {
+
+    /**
+     * Zero-based position of the item in the request
+     */
+    private Integer index;
+    private Long invoiceId;
+    private Boolean stored;
+    private String error;
+}
@@ -0,0 +1,24 @@
+package com.paymentrecovery.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for batched extracted-data callbacks
+ * Contains totals and one result per submitted item, in request order
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtractedDataBatchResponse {
+
+    private Integer received;
+    private Integer stored;
+    private Integer rejected;
+    private List<ExtractedDataBatchItemResult> results;
+}
@@ -0,0 +1,21 @@
+package com.paymentrecovery.model.dto.response;
+
+import com.paymentrecovery.model.dto.request.ExtractedInvoiceDataRequest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item in a batched extraction request, as reported by the Python service
+ * Carries the extracted data of a successful item, which InvoiceExtractionService stores
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtractionBatchItemResult {
+
+    private Long invoiceId;
+    private Boolean success;
+    private ExtractedInvoiceDataRequest extractedData;
+    private String error;
+}
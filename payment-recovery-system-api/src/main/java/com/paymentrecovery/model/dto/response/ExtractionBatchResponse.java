@@ -0,0 +1,19 @@
+package com.paymentrecovery.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO of the Python service for a batched extraction request
+ * Contains one result per submitted item
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtractionBatchResponse {
+
+    private List<ExtractionBatchItemResult> results;
+}
@@ -13,6 +13,7 @@ import lombok.NoArgsConstructor;
 public class LoginResponse {
     
     private String token;
+    private String refreshToken;
     private String role;
     private String username;
 }
@@ -0,0 +1,26 @@
+package com.paymentrecovery.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item in a reminder log batch
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderLogBatchItemResult {
+
+    /**
+     * Zero-based position of the item in the request: its array index, or for NDJSON its position
+     * among the non-blank lines (blank lines are skipped and not counted)
+     */
+    private Integer index;
+    private Long invoiceId;
+    private Boolean created;
+    private Long reminderLogId;
+    private String error;
+}
@@ -0,0 +1,24 @@
+package com.paymentrecovery.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for batch reminder log ingestion
+ * Contains totals and one result per submitted item, in request order
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderLogBatchResponse {
+
+    private Integer received;
+    private Integer created;
+    private Integer rejected;
+    private List<ReminderLogBatchItemResult> results;
+}
@@ -0,0 +1,55 @@
+package com.paymentrecovery.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Company receivables summary - one row per company
+ * Holds the dashboard totals, maintained incrementally on every invoice status transition
+ * Overdue figures are only valid for {@code overdueAsOf}; recovered amount only for {@code recoveredMonth}
+ * A row with a null {@code overdueAsOf} has never been computed and must be rebuilt before use
+ */
+@Entity
+@Table(name = "company_receivables_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+public class CompanyReceivablesSummary {
+
+    @Id
+    @Column(name = "company_id")
+    private Long companyId;
+
+    @Column(name = "pending_invoices", nullable = false)
+    private long pendingInvoices;
+
+    @Column(name = "pending_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal pendingAmount = BigDecimal.ZERO;
+
+    @Column(name = "paid_invoices", nullable = false)
+    private long paidInvoices;
+
+    @Column(name = "overdue_invoices", nullable = false)
+    private long overdueInvoices;
+
+    @Column(name = "overdue_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal overdueAmount = BigDecimal.ZERO;
+
+    @Column(name = "overdue_as_of")
+    private LocalDate overdueAsOf;
+
+    @Column(name = "recovered_month")
+    private LocalDate recoveredMonth; // First day of the month the recovered amount belongs to
+
+    @Column(name = "money_recovered_this_month", nullable = false, precision = 19, scale = 2)
+    private BigDecimal moneyRecoveredThisMonth = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
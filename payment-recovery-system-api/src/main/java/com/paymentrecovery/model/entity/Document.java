@@ -17,7 +17,8 @@ import lombok.Setter;
 @Table(name = "documents", indexes = {
     @Index(name = "idx_document_company_id", columnList = "company_id"),
     @Index(name = "idx_document_invoice_id", columnList = "invoice_id"),
-    @Index(name = "idx_document_type", columnList = "document_type")
+    @Index(name = "idx_document_type", columnList = "document_type"),
+    @Index(name = "idx_document_stored_file_name", columnList = "stored_file_name")
 })
 @Getter
 @Setter
@@ -0,0 +1,59 @@
+package com.paymentrecovery.model.entity;
+
+import com.paymentrecovery.model.enums.ExtractionJobStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * ExtractionJob entity - A durable request to extract data from an uploaded invoice file
+ * Written in the upload transaction and drained by ExtractionJobWorker; a worker leases the job
+ * until lockedUntil, so a job held by a crashed node is picked up again once the lease runs out
+ */
+@Entity
+@Table(name = "extraction_jobs", indexes = {
+    @Index(name = "idx_extraction_job_invoice_id", columnList = "invoice_id"),
+    @Index(name = "idx_extraction_job_status_run_at", columnList = "status, run_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtractionJob extends BaseEntity {
+
+    @Column(name = "invoice_id", nullable = false)
+    @NotNull(message = "Invoice ID is required")
+    private Long invoiceId;
+
+    @Column(name = "file_path", nullable = false, length = 500)
+    @NotBlank(message = "File path is required")
+    private String filePath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @NotNull(message = "Status is required")
+    private ExtractionJobStatus status = ExtractionJobStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @NotNull(message = "Attempts is required")
+    private Integer attempts = 0;
+
+    @Column(name = "run_at", nullable = false)
+    @NotNull(message = "Run at is required")
+    private LocalDateTime runAt;
+
+    @Column(name = "locked_by", length = 100)
+    private String lockedBy;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
@@ -17,14 +17,17 @@ import java.time.LocalDate;
 /**
  * Invoice entity - Represents an invoice
  * Each invoice belongs to a company and a customer
+ * The INCLUDE columns and the partial PENDING index are defined in db/migration/V2__invoice_query_indexes.sql
  */
 @Entity
 @Table(name = "invoices", indexes = {
-    @Index(name = "idx_invoice_company_id", columnList = "company_id"),
     @Index(name = "idx_invoice_customer_id", columnList = "customer_id"),
     @Index(name = "idx_invoice_invoice_number", columnList = "invoice_number"),
     @Index(name = "idx_invoice_status", columnList = "status"),
-    @Index(name = "idx_invoice_due_date", columnList = "due_date")
+    @Index(name = "idx_invoice_due_date", columnList = "due_date"),
+    @Index(name = "idx_invoice_company_created_at_id", columnList = "company_id, created_at, id"),
+    @Index(name = "idx_invoice_company_status_due_date", columnList = "company_id, status, due_date"),
+    @Index(name = "idx_invoice_company_status_created_at_id", columnList = "company_id, status, created_at, id")
 })
 @Getter
 @Setter
@@ -56,6 +59,12 @@ public class Invoice extends BaseEntity {
     @Column(name = "file_path", length = 500)
     private String filePath;
 
+    /**
+     * Hex SHA-256 of the uploaded file, linking the invoice to its StoredFile; null for invoices entered manually
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "extracted_data", columnDefinition = "jsonb")
     private JsonNode extractedData;
@@ -17,7 +17,7 @@ import java.time.LocalDate;
  */
 @Entity
 @Table(name = "payments", indexes = {
-    @Index(name = "idx_payment_invoice_id", columnList = "invoice_id"),
+    @Index(name = "idx_payment_invoice_id_payment_date", columnList = "invoice_id, payment_date"),
     @Index(name = "idx_payment_payment_date", columnList = "payment_date")
 })
 @Getter
@@ -0,0 +1,52 @@
+package com.paymentrecovery.model.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * RefreshToken entity - A refresh token issued to a user
+ * Only the SHA-256 hash of the token is stored. Each refresh replaces the token with a new one
+ * in the same family; presenting a token that was already used revokes the whole family.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+    @Index(name = "idx_refresh_token_family_id", columnList = "family_id"),
+    @Index(name = "idx_refresh_token_expires_at", columnList = "expires_at")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_refresh_token_hash", columnNames = {"token_hash"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken extends BaseEntity {
+
+    @Column(name = "user_id", nullable = false)
+    @NotNull(message = "User ID is required")
+    private Long userId;
+
+    @Column(name = "token_hash", nullable = false, length = 64)
+    @NotBlank(message = "Token hash is required")
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    @NotBlank(message = "Family ID is required")
+    private String familyId;
+
+    @Column(name = "expires_at", nullable = false)
+    @NotNull(message = "Expiry is required")
+    private LocalDateTime expiresAt;
+
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+}
@@ -17,7 +17,7 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "reminder_logs", indexes = {
-    @Index(name = "idx_reminder_log_invoice_id", columnList = "invoice_id"),
+    @Index(name = "idx_reminder_log_invoice_id_sent_date", columnList = "invoice_id, sent_date"),
     @Index(name = "idx_reminder_log_sent_date", columnList = "sent_date"),
     @Index(name = "idx_reminder_log_type_channel", columnList = "reminder_type" + ", " + "channel")
 })
@@ -0,0 +1,66 @@
+package com.paymentrecovery.model.entity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * StoredFile entity - A deduplicated invoice file
+ * Files are stored once per company under the SHA-256 of their content; referenceCount is the
+ * number of invoices pointing at the file, so it can be deleted once the last one goes (not
+ * implemented yet, see referenceCount)
+ * The row also caches the file's extraction result, valid for the extractor version that produced it
+ */
+@Entity
+@Table(name = "stored_files", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_stored_file_company_content_hash", columnNames = {"company_id", "content_hash"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFile extends BaseEntity {
+
+    @Column(name = "company_id", nullable = false)
+    @NotNull(message = "Company ID is required")
+    private Long companyId;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    @NotBlank(message = "Content hash is required")
+    private String contentHash;
+
+    @Column(name = "file_path", nullable = false, length = 500)
+    @NotBlank(message = "File path is required")
+    private String filePath;
+
+    @Column(name = "file_size", nullable = false)
+    @NotNull(message = "File size is required")
+    private Long fileSize;
+
+    /**
+     * Invoices pointing at the file; only ever incremented, as invoices cannot be deleted yet
+     * Known gap: invoice deletion, once added, must decrement it and remove the file at zero
+     */
+    @Column(name = "reference_count", nullable = false)
+    @NotNull(message = "Reference count is required")
+    private Integer referenceCount;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "extracted_data", columnDefinition = "jsonb")
+    private JsonNode extractedData;
+
+    @Column(name = "extractor_version", length = 50)
+    private String extractorVersion;
+
+    @Column(name = "extracted_at")
+    private LocalDateTime extractedAt;
+}
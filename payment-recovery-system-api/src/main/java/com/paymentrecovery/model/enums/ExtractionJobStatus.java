@@ -0,0 +1,15 @@
+package com.paymentrecovery.model.enums;
+
+/**
+ * Extraction job status enumeration
+ * PENDING - Waiting for a worker (new, or retrying after a failure)
+ * RUNNING - Leased by a worker; returns to the pool if the lease expires
+ * SUCCEEDED - Extraction request accepted by the Python service
+ * DEAD - Failed on every attempt; kept for inspection and manual retry
+ */
+public enum ExtractionJobStatus {
+    PENDING,
+    RUNNING,
+    SUCCEEDED,
+    DEAD
+}
@@ -1,12 +1,47 @@
 package com.paymentrecovery.model.enums;
 
+import java.time.LocalDate;
+
 /**
  * Reminder type enumeration
+ * Declared in escalation order; each type is sent a fixed number of days from the due date
  */
 public enum ReminderType {
-    GENTLE,
-    DUE,
-    FIRM,
-    ESCALATION
-}
+    GENTLE(-5),
+    DUE(0),
+    FIRM(7),
+    ESCALATION(15);
+
+    private final int daysFromDueDate;
+
+    ReminderType(int daysFromDueDate) {
+        this.daysFromDueDate = daysFromDueDate;
+    }
 
+    /**
+     * Days relative to the due date on which this reminder is sent (negative means before)
+     */
+    public int getDaysFromDueDate() {
+        return daysFromDueDate;
+    }
+
+    /**
+     * Date on which this reminder becomes due for an invoice
+     *
+     * @param dueDate Invoice due date
+     * @return Reminder date
+     */
+    public LocalDate reminderDate(LocalDate dueDate) {
+        return dueDate.plusDays(daysFromDueDate);
+    }
+
+    /**
+     * Next reminder in the escalation order
+     *
+     * @return Next reminder type, or null after ESCALATION
+     */
+    public ReminderType next() {
+        ReminderType[] types = values();
+        return ordinal() + 1 < types.length ? types[ordinal() + 1] : null;
+    }
+}
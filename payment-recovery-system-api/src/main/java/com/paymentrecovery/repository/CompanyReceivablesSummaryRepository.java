@@ -0,0 +1,116 @@
+package com.paymentrecovery.repository;
+
+import com.paymentrecovery.model.entity.CompanyReceivablesSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for CompanyReceivablesSummary entity
+ * Counter updates are single atomic UPDATE statements so concurrent transitions never lose increments
+ */
+@Repository
+public interface CompanyReceivablesSummaryRepository extends JpaRepository<CompanyReceivablesSummary, Long> {
+
+    /**
+     * Find summary row and lock it until the end of the transaction
+     * Concurrent counter updates for the company wait until the lock is released
+     *
+     * @param companyId Company ID
+     * @return Locked summary row, if present
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CompanyReceivablesSummary s WHERE s.companyId = :companyId")
+    Optional<CompanyReceivablesSummary> findByIdForUpdate(@Param("companyId") Long companyId);
+
+    /**
+     * Find IDs of all companies that have a summary row
+     *
+     * @return Company IDs
+     */
+    @Query("SELECT s.companyId FROM CompanyReceivablesSummary s ORDER BY s.companyId")
+    List<Long> findAllCompanyIds();
+
+    /**
+     * Create an empty, not yet computed summary row unless one exists
+     *
+     * @param companyId Company ID
+     * @return Number of rows inserted (0 or 1)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO company_receivables_summary " +
+                   "(company_id, pending_invoices, pending_amount, paid_invoices, " +
+                   "overdue_invoices, overdue_amount, money_recovered_this_month) " +
+                   "VALUES (:companyId, 0, 0, 0, 0, 0, 0) " +
+                   "ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("companyId") Long companyId);
+
+    /**
+     * Apply counter deltas for one invoice transition
+     * Overdue figures move with the pending figures when the invoice was overdue as of the row's overdue date
+     * The recovered bucket restarts when the transition falls in a new month
+     *
+     * @param companyId Company ID
+     * @param pendingDelta Change in pending invoice count
+     * @param pendingAmountDelta Change in pending amount
+     * @param paidDelta Change in paid invoice count
+     * @param recoveredAmountDelta Amount recovered by this transition
+     * @param dueDate Invoice due date, may be null
+     * @param recoveredMonth First day of the current month
+     * @param now Update timestamp
+     * @return Number of rows updated
+     */
+    @Modifying
+    @Query(value = "UPDATE company_receivables_summary SET " +
+                   "pending_invoices = pending_invoices + :pendingDelta, " +
+                   "pending_amount = pending_amount + :pendingAmountDelta, " +
+                   "overdue_invoices = overdue_invoices + " +
+                   "CASE WHEN CAST(:dueDate AS DATE) < overdue_as_of THEN :pendingDelta ELSE 0 END, " +
+                   "overdue_amount = overdue_amount + " +
+                   "CASE WHEN CAST(:dueDate AS DATE) < overdue_as_of THEN :pendingAmountDelta ELSE 0 END, " +
+                   "paid_invoices = paid_invoices + :paidDelta, " +
+                   "money_recovered_this_month = CASE WHEN recovered_month = :recoveredMonth " +
+                   "THEN money_recovered_this_month + :recoveredAmountDelta ELSE :recoveredAmountDelta END, " +
+                   "recovered_month = :recoveredMonth, " +
+                   "updated_at = :now " +
+                   "WHERE company_id = :companyId",
+           nativeQuery = true)
+    int applyDelta(@Param("companyId") Long companyId,
+                   @Param("pendingDelta") long pendingDelta,
+                   @Param("pendingAmountDelta") BigDecimal pendingAmountDelta,
+                   @Param("paidDelta") long paidDelta,
+                   @Param("recoveredAmountDelta") BigDecimal recoveredAmountDelta,
+                   @Param("dueDate") LocalDate dueDate,
+                   @Param("recoveredMonth") LocalDate recoveredMonth,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Recompute overdue figures of every computed summary row for a new day
+     *
+     * @param today Invoices due before this date count as overdue
+     * @param now Update timestamp
+     * @return Number of rows updated
+     */
+    @Modifying
+    @Query(value = "UPDATE company_receivables_summary s SET " +
+                   "overdue_invoices = (SELECT COUNT(*) FROM invoices i " +
+                   "WHERE i.company_id = s.company_id AND i.status = 'PENDING' AND i.due_date < :today), " +
+                   "overdue_amount = (SELECT COALESCE(SUM(i.amount), 0) FROM invoices i " +
+                   "WHERE i.company_id = s.company_id AND i.status = 'PENDING' AND i.due_date < :today), " +
+                   "overdue_as_of = :today, " +
+                   "updated_at = :now " +
+                   "WHERE s.overdue_as_of IS NOT NULL AND s.overdue_as_of < :today",
+           nativeQuery = true)
+    int refreshOverdue(@Param("today") LocalDate today, @Param("now") LocalDateTime now);
+}
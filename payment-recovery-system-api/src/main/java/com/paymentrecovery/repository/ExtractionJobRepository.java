@@ -0,0 +1,60 @@
+package com.paymentrecovery.repository;
+
+import com.paymentrecovery.model.entity.ExtractionJob;
+import com.paymentrecovery.model.enums.ExtractionJobStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for ExtractionJob entity
+ */
+@Repository
+public interface ExtractionJobRepository extends JpaRepository<ExtractionJob, Long> {
+
+    /**
+     * Lock the next jobs ready to run: PENDING jobs whose run time has come and RUNNING jobs whose
+     * lease has expired, oldest first
+     * Runs as SELECT ... FOR UPDATE SKIP LOCKED (lock timeout -2), so concurrent workers on any node
+     * each get a disjoint set of jobs without waiting on one another
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT j FROM ExtractionJob j " +
+           "WHERE (j.status = com.paymentrecovery.model.enums.ExtractionJobStatus.PENDING AND j.runAt <= :now) " +
+           "OR (j.status = com.paymentrecovery.model.enums.ExtractionJobStatus.RUNNING AND j.lockedUntil < :now) " +
+           "ORDER BY j.runAt")
+    List<ExtractionJob> findRunnableForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Count jobs by status
+     */
+    long countByStatus(ExtractionJobStatus status);
+
+    /**
+     * Put a DEAD job back in the queue with a fresh attempt budget
+     */
+    @Modifying
+    @Query("UPDATE ExtractionJob j SET j.status = com.paymentrecovery.model.enums.ExtractionJobStatus.PENDING, " +
+           "j.attempts = 0, j.runAt = :now, j.lockedBy = NULL, j.lockedUntil = NULL " +
+           "WHERE j.id = :id AND j.status = com.paymentrecovery.model.enums.ExtractionJobStatus.DEAD")
+    int requeueDead(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Delete succeeded jobs last updated before the given time
+     */
+    @Modifying
+    @Query("DELETE FROM ExtractionJob j " +
+           "WHERE j.status = com.paymentrecovery.model.enums.ExtractionJobStatus.SUCCEEDED AND j.updatedAt < :before")
+    int deleteSucceededBefore(@Param("before") LocalDateTime before);
+}
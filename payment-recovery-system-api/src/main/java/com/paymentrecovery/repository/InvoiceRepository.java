@@ -1,14 +1,26 @@
 package com.paymentrecovery.repository;
 
+import com.paymentrecovery.model.dto.response.DashboardMetricsDto;
+import com.paymentrecovery.model.dto.response.InvoiceReminderDto;
 import com.paymentrecovery.model.entity.Invoice;
 import com.paymentrecovery.model.enums.InvoiceStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for Invoice entity
@@ -18,38 +30,130 @@ import java.util.List;
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
 
     /**
-     * Find all invoices with PENDING status
-     * Eagerly fetches customer and company to avoid N+1 queries
+     * Select clause shared by the reminder projections
+     * Reads only the eight columns needed for reminders; no entities are loaded, so there is
+     * no dirty checking, no persistence-context growth and no jsonb deserialization
      * Note: Uses LEFT JOIN for customer as it can be null for DRAFT invoices
+     */
+    String REMINDER_DTO_SELECT = "SELECT new com.paymentrecovery.model.dto.response.InvoiceReminderDto(" +
+            "i.id, i.invoiceNumber, i.dueDate, i.amount, i.company.id, " +
+            "c.customerName, c.email, c.phone) " +
+            "FROM Invoice i " +
+            "LEFT JOIN i.customer c ";
+
+    /**
+     * Find reminder data for all invoices with the given status, ordered by due date
      *
-     * @return List of invoices with PENDING status
+     * @param status Invoice status
+     * @return List of reminder DTOs
      */
-    @Query("SELECT i FROM Invoice i " +
-           "LEFT JOIN FETCH i.customer c " +
-           "JOIN FETCH i.company " +
+    @Query(REMINDER_DTO_SELECT +
            "WHERE i.status = :status " +
            "ORDER BY i.dueDate ASC")
-    List<Invoice> findAllByStatusWithCustomerAndCompany(@Param("status") InvoiceStatus status);
+    List<InvoiceReminderDto> findReminderDtosByStatus(@Param("status") InvoiceStatus status);
+
+    /**
+     * Rows fetched per round trip when streaming
+     */
+    int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * Stream reminder data for all invoices with the given status, ordered by due date
+     * Rows are read through a server-side cursor in chunks of {@link #STREAM_FETCH_SIZE}
+     * Must be consumed inside a transaction and closed; the transaction lasts until the stream is
+     * drained, so consumers that wait on a client should page with the keyset queries below instead
+     *
+     * @param status Invoice status
+     * @return Stream of reminder DTOs
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query(REMINDER_DTO_SELECT +
+           "WHERE i.status = :status " +
+           "ORDER BY i.dueDate ASC")
+    Stream<InvoiceReminderDto> streamReminderDtosByStatus(@Param("status") InvoiceStatus status);
+
+    /**
+     * Find the first keyset page of reminder data for invoices with the given status
+     * Invoices without a due date are left out: they have nothing to remind about, and a null
+     * position could not be sought past
+     * Pass an unsorted Pageable with page 0, ordering is fixed by the query
+     *
+     * @param status Invoice status
+     * @param pageable Page request (page 0, unsorted)
+     * @return Reminder DTOs ordered by dueDate ASC, id ASC
+     */
+    @Query(REMINDER_DTO_SELECT +
+           "WHERE i.status = :status " +
+           "AND i.dueDate IS NOT NULL " +
+           "ORDER BY i.dueDate ASC, i.id ASC")
+    List<InvoiceReminderDto> findFirstReminderDtoPageByStatus(
+            @Param("status") InvoiceStatus status,
+            Pageable pageable
+    );
+
+    /**
+     * Find the keyset page of reminder data that follows the given (dueDate, id) position
+     * Seeks on the partial (due_date, id) index of PENDING invoices, so every page costs the same at any depth
+     * Like the first page, only invoices with a due date are returned, so the position is never null
+     * Pass an unsorted Pageable with page 0
+     *
+     * @param status Invoice status
+     * @param dueDate dueDate of the last invoice on the previous page
+     * @param id ID of the last invoice on the previous page
+     * @param pageable Page request (page 0, unsorted)
+     * @return Reminder DTOs ordered by dueDate ASC, id ASC
+     */
+    @Query(REMINDER_DTO_SELECT +
+           "WHERE i.status = :status " +
+           "AND i.dueDate >= :dueDate " +
+           "AND (i.dueDate > :dueDate OR i.id > :id) " +
+           "ORDER BY i.dueDate ASC, i.id ASC")
+    List<InvoiceReminderDto> findReminderDtoPageByStatusAfter(
+            @Param("status") InvoiceStatus status,
+            @Param("dueDate") LocalDate dueDate,
+            @Param("id") Long id,
+            Pageable pageable
+    );
 
     /**
-     * Find all invoices with PENDING status for a specific company
+     * Find reminder data for a company's invoices with the given status, ordered by due date
      * Useful for multi-tenant queries
-     * Note: Uses LEFT JOIN for customer as it can be null for DRAFT invoices
      *
      * @param companyId Company ID
      * @param status Invoice status
-     * @return List of invoices with specified status for the company
+     * @return List of reminder DTOs for the company
      */
-    @Query("SELECT i FROM Invoice i " +
-           "LEFT JOIN FETCH i.customer c " +
-           "JOIN FETCH i.company " +
+    @Query(REMINDER_DTO_SELECT +
            "WHERE i.company.id = :companyId AND i.status = :status " +
            "ORDER BY i.dueDate ASC")
-    List<Invoice> findAllByCompanyIdAndStatusWithCustomerAndCompany(
+    List<InvoiceReminderDto> findReminderDtosByCompanyIdAndStatus(
             @Param("companyId") Long companyId,
             @Param("status") InvoiceStatus status
     );
 
+    /**
+     * Find reminder data for a single invoice with the given status
+     *
+     * @param invoiceId Invoice ID
+     * @param status Invoice status
+     * @return Reminder DTO, or empty if the invoice does not exist or has another status
+     */
+    @Query(REMINDER_DTO_SELECT +
+           "WHERE i.id = :invoiceId AND i.status = :status")
+    Optional<InvoiceReminderDto> findReminderDtoByIdAndStatus(
+            @Param("invoiceId") Long invoiceId,
+            @Param("status") InvoiceStatus status
+    );
+
+    /**
+     * Find which of the given invoice IDs exist
+     *
+     * @param invoiceIds Invoice IDs to check
+     * @return IDs that belong to an existing invoice
+     */
+    @Query("SELECT i.id FROM Invoice i WHERE i.id IN :invoiceIds")
+    List<Long> findExistingIds(@Param("invoiceIds") Collection<Long> invoiceIds);
+
     /**
      * Simple method to find invoices by status
      * Uses default JPA method naming convention
@@ -86,59 +190,138 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     List<Invoice> findByCompanyId(@Param("companyId") Long companyId);
 
     /**
-     * Find invoice by ID with eagerly fetched relationships
-     * Used for invoice detail view to avoid lazy loading issues
-     */
-    @Query("SELECT i FROM Invoice i " +
-           "LEFT JOIN FETCH i.customer c " +
-           "JOIN FETCH i.company " +
-           "WHERE i.id = :invoiceId")
-    Invoice findByIdWithRelationships(@Param("invoiceId") Long invoiceId);
-
-    /**
-     * Find overdue invoices for a company (pending invoices with due date before today)
+     * Find a page of invoices for a company with optional status and search filters
+     * Paging, filtering and counting all happen in the database, so only one page is loaded
+     * Eagerly fetches company and customer to avoid lazy loading issues
+     *
+     * @param companyId Company ID
+     * @param status Invoice status, or null for all statuses
+     * @param searchPattern Lowercased LIKE pattern (escape character '!') matched against invoice number
+     *                      and customer name, or null
+     * @param pageable Page request (sort is taken from the pageable)
+     * @return Page of invoices with total count
      */
-    @Query("SELECT i FROM Invoice i WHERE i.company.id = :companyId " +
-           "AND i.status = :status AND i.dueDate < :today")
-    List<Invoice> findOverdueInvoicesByCompany(
+    @Query(value = "SELECT i FROM Invoice i " +
+                   "LEFT JOIN FETCH i.customer c " +
+                   "JOIN FETCH i.company " +
+                   "WHERE i.company.id = :companyId " +
+                   "AND (:status IS NULL OR i.status = :status) " +
+                   "AND (:searchPattern IS NULL " +
+                   "     OR LOWER(i.invoiceNumber) LIKE :searchPattern ESCAPE '!' " +
+                   "     OR LOWER(c.customerName) LIKE :searchPattern ESCAPE '!')",
+           countQuery = "SELECT COUNT(i) FROM Invoice i " +
+                        "LEFT JOIN i.customer c " +
+                        "WHERE i.company.id = :companyId " +
+                        "AND (:status IS NULL OR i.status = :status) " +
+                        "AND (:searchPattern IS NULL " +
+                        "     OR LOWER(i.invoiceNumber) LIKE :searchPattern ESCAPE '!' " +
+                        "     OR LOWER(c.customerName) LIKE :searchPattern ESCAPE '!')")
+    Page<Invoice> findPageByCompanyId(
             @Param("companyId") Long companyId,
             @Param("status") InvoiceStatus status,
-            @Param("today") java.time.LocalDate today
+            @Param("searchPattern") String searchPattern,
+            Pageable pageable
     );
 
     /**
-     * Sum total amount of invoices by company ID and status
+     * Find the first keyset (cursor) slice of invoices for a company, newest first
+     * Never runs a COUNT query; request a page of size N and Spring Data reads N + 1 rows to set hasNext
+     * Pass an unsorted Pageable with page 0, ordering is fixed by the query
+     *
+     * @param companyId Company ID
+     * @param status Invoice status, or null for all statuses
+     * @param searchPattern Lowercased LIKE pattern (escape character '!'), or null
+     * @param pageable Page request (page 0, unsorted)
+     * @return Slice of invoices ordered by createdAt DESC, id DESC
      */
-    @Query("SELECT COALESCE(SUM(i.amount), 0) FROM Invoice i " +
-           "WHERE i.company.id = :companyId AND i.status = :status")
-    BigDecimal sumTotalAmountByCompanyIdAndStatus(
+    @Query("SELECT i FROM Invoice i " +
+           "LEFT JOIN FETCH i.customer c " +
+           "JOIN FETCH i.company " +
+           "WHERE i.company.id = :companyId " +
+           "AND (:status IS NULL OR i.status = :status) " +
+           "AND (:searchPattern IS NULL " +
+           "     OR LOWER(i.invoiceNumber) LIKE :searchPattern ESCAPE '!' " +
+           "     OR LOWER(c.customerName) LIKE :searchPattern ESCAPE '!') " +
+           "ORDER BY i.createdAt DESC, i.id DESC")
+    Slice<Invoice> findFirstSliceByCompanyId(
             @Param("companyId") Long companyId,
-            @Param("status") InvoiceStatus status
+            @Param("status") InvoiceStatus status,
+            @Param("searchPattern") String searchPattern,
+            Pageable pageable
     );
 
     /**
-     * Sum total amount of overdue invoices for a company
+     * Find the keyset (cursor) slice of invoices that follows the given (createdAt, id) position
+     * Seeks on the (company_id, created_at, id) index, so every page costs the same at any depth
+     * The redundant createdAt &lt;= bound gives the planner an index range start for the seek
+     * Never runs a COUNT query; pass an unsorted Pageable with page 0
+     *
+     * @param companyId Company ID
+     * @param status Invoice status, or null for all statuses
+     * @param searchPattern Lowercased LIKE pattern (escape character '!'), or null
+     * @param createdAt createdAt of the last invoice on the previous slice
+     * @param id ID of the last invoice on the previous slice
+     * @param pageable Page request (page 0, unsorted)
+     * @return Slice of invoices ordered by createdAt DESC, id DESC
      */
-    @Query("SELECT COALESCE(SUM(i.amount), 0) FROM Invoice i " +
-           "WHERE i.company.id = :companyId AND i.status = :status " +
-           "AND i.dueDate < :today")
-    BigDecimal sumOverdueAmountByCompany(
+    @Query("SELECT i FROM Invoice i " +
+           "LEFT JOIN FETCH i.customer c " +
+           "JOIN FETCH i.company " +
+           "WHERE i.company.id = :companyId " +
+           "AND i.createdAt <= :createdAt " +
+           "AND (i.createdAt < :createdAt OR i.id < :id) " +
+           "AND (:status IS NULL OR i.status = :status) " +
+           "AND (:searchPattern IS NULL " +
+           "     OR LOWER(i.invoiceNumber) LIKE :searchPattern ESCAPE '!' " +
+           "     OR LOWER(c.customerName) LIKE :searchPattern ESCAPE '!') " +
+           "ORDER BY i.createdAt DESC, i.id DESC")
+    Slice<Invoice> findSliceByCompanyIdAfter(
             @Param("companyId") Long companyId,
             @Param("status") InvoiceStatus status,
-            @Param("today") java.time.LocalDate today
+            @Param("searchPattern") String searchPattern,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
     );
 
     /**
-     * Sum total amount of paid invoices for a company this month
+     * Find invoice by ID with eagerly fetched relationships
+     * Used for invoice detail view to avoid lazy loading issues
      */
-    @Query("SELECT COALESCE(SUM(i.amount), 0) FROM Invoice i " +
-           "WHERE i.company.id = :companyId AND i.status = :status " +
-           "AND i.updatedAt >= :startDate AND i.updatedAt < :endDate")
-    BigDecimal sumPaidAmountThisMonthByCompany(
+    @Query("SELECT i FROM Invoice i " +
+           "LEFT JOIN FETCH i.customer c " +
+           "JOIN FETCH i.company " +
+           "WHERE i.id = :invoiceId")
+    Invoice findByIdWithRelationships(@Param("invoiceId") Long invoiceId);
+
+    /**
+     * Compute all company dashboard metrics in one round trip
+     * Uses conditional aggregation (FILTER clauses) over PENDING and PAID invoices only
+     *
+     * @param companyId Company ID
+     * @param pending PENDING status
+     * @param paid PAID status
+     * @param today Invoices due before this date count as overdue
+     * @param startDate Start of the current month (inclusive)
+     * @param endDate Start of the next month (exclusive)
+     * @return Dashboard metrics projection
+     */
+    @Query("SELECT new com.paymentrecovery.model.dto.response.DashboardMetricsDto(" +
+           "COUNT(i) FILTER (WHERE i.status = :pending), " +
+           "COUNT(i) FILTER (WHERE i.status = :paid), " +
+           "COALESCE(SUM(i.amount) FILTER (WHERE i.status = :pending), 0), " +
+           "COUNT(i) FILTER (WHERE i.status = :pending AND i.dueDate < :today), " +
+           "COALESCE(SUM(i.amount) FILTER (WHERE i.status = :pending AND i.dueDate < :today), 0), " +
+           "COALESCE(SUM(i.amount) FILTER (WHERE i.status = :paid " +
+           "AND i.updatedAt >= :startDate AND i.updatedAt < :endDate), 0)) " +
+           "FROM Invoice i " +
+           "WHERE i.company.id = :companyId AND i.status IN (:pending, :paid)")
+    DashboardMetricsDto getDashboardMetricsByCompany(
             @Param("companyId") Long companyId,
-            @Param("status") InvoiceStatus status,
-            @Param("startDate") java.time.LocalDateTime startDate,
-            @Param("endDate") java.time.LocalDateTime endDate
+            @Param("pending") InvoiceStatus pending,
+            @Param("paid") InvoiceStatus paid,
+            @Param("today") java.time.LocalDate today,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate
     );
 }
-
@@ -0,0 +1,48 @@
+package com.paymentrecovery.repository;
+
+import com.paymentrecovery.model.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository for RefreshToken entity
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Find refresh token by the SHA-256 hash of its value
+     */
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Mark a token as used, only if it is still unused and not revoked
+     * Returns 0 when another request already rotated the token, so concurrent refreshes
+     * with the same token cannot both succeed
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.usedAt = :now " +
+           "WHERE rt.id = :id AND rt.usedAt IS NULL AND rt.revokedAt IS NULL")
+    int markUsed(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Revoke every token in a family
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revokedAt = :now " +
+           "WHERE rt.familyId = :familyId AND rt.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
+    /**
+     * Delete tokens that expired before the given time
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :before")
+    int deleteExpired(@Param("before") LocalDateTime before);
+}
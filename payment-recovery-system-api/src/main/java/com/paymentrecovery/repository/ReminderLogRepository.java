@@ -1,12 +1,14 @@
 package com.paymentrecovery.repository;
 
 import com.paymentrecovery.model.entity.ReminderLog;
+import com.paymentrecovery.model.enums.InvoiceStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for ReminderLog entity
@@ -31,5 +33,23 @@ public interface ReminderLogRepository extends JpaRepository<ReminderLog, Long>
      */
     @Query("SELECT rl FROM ReminderLog rl WHERE rl.invoiceId = :invoiceId ORDER BY rl.sentDate DESC")
     List<ReminderLog> findByInvoiceIdOrderBySentDateDesc(@Param("invoiceId") Long invoiceId);
-}
 
+    /**
+     * Find the most recent reminder log of every invoice with the given status
+     *
+     * @param status Invoice status
+     * @return Latest reminder log per invoice; invoices without reminders are absent
+     */
+    @Query("SELECT rl FROM ReminderLog rl " +
+           "WHERE rl.invoiceId IN (SELECT i.id FROM Invoice i WHERE i.status = :status) " +
+           "AND rl.sentDate = (SELECT MAX(r2.sentDate) FROM ReminderLog r2 WHERE r2.invoiceId = rl.invoiceId)")
+    List<ReminderLog> findLatestByInvoiceStatus(@Param("status") InvoiceStatus status);
+
+    /**
+     * Find the most recent reminder log for an invoice
+     *
+     * @param invoiceId Invoice ID
+     * @return Latest reminder log, or empty if no reminder was sent
+     */
+    Optional<ReminderLog> findFirstByInvoiceIdOrderBySentDateDesc(Long invoiceId);
+}
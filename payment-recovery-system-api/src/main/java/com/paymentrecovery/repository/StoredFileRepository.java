@@ -0,0 +1,67 @@
+package com.paymentrecovery.repository;
+
+import com.paymentrecovery.model.entity.StoredFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for StoredFile entity
+ * Reference counts change only through single atomic statements, so concurrent uploads of the
+ * same content never lose a reference
+ */
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, Long> {
+
+    /**
+     * Find the stored file with the given content for a company
+     *
+     * @param companyId Company ID
+     * @param contentHash Hex SHA-256 of the file content
+     * @return Stored file, if this content was uploaded before
+     */
+    Optional<StoredFile> findByCompanyIdAndContentHash(Long companyId, String contentHash);
+
+    /**
+     * Find a company's stored files with any of the given contents
+     *
+     * @param companyId Company ID
+     * @param contentHashes Hex SHA-256 hashes
+     * @return Stored files
+     */
+    List<StoredFile> findByCompanyIdAndContentHashIn(Long companyId, Collection<String> contentHashes);
+
+    /**
+     * Count stored files holding an extraction result of the given extractor version
+     *
+     * @param extractorVersion Extractor version
+     * @return Number of cached extraction results
+     */
+    long countByExtractorVersion(String extractorVersion);
+
+    /**
+     * Record a new reference to a file: insert the row with one reference, or add a reference to
+     * the existing row when the content is already stored (the existing file path is kept)
+     *
+     * @return Number of rows inserted or updated (always 1)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stored_files " +
+                   "(id, company_id, content_hash, file_path, file_size, reference_count, created_at, updated_at) " +
+                   "VALUES (nextval('stored_files_id_seq'), :companyId, :contentHash, :filePath, :fileSize, 1, :now, :now) " +
+                   "ON CONFLICT (company_id, content_hash) DO UPDATE SET " +
+                   "reference_count = stored_files.reference_count + 1, updated_at = :now",
+           nativeQuery = true)
+    int addReference(@Param("companyId") Long companyId,
+                     @Param("contentHash") String contentHash,
+                     @Param("filePath") String filePath,
+                     @Param("fileSize") Long fileSize,
+                     @Param("now") LocalDateTime now);
+}
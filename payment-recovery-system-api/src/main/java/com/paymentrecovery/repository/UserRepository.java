@@ -3,7 +3,11 @@ package com.paymentrecovery.repository;
 import com.paymentrecovery.model.entity.User;
 import com.paymentrecovery.model.enums.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,6 +27,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * Find user by username (across all companies)
      */
     Optional<User> findByUsername(String username);
+
+    /**
+     * Find user by username with the company loaded, so it can be used after the read transaction ends
+     */
+    @Query("SELECT u FROM User u JOIN FETCH u.company WHERE u.username = :username")
+    Optional<User> findWithCompanyByUsername(@Param("username") String username);
+
+    /**
+     * Replace a password hash, only if it is still the given one
+     * Returns 0 when the password was changed in the meantime, which then stays as it is
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :id AND u.password = :oldPassword")
+    int updatePassword(@Param("id") Long id,
+                       @Param("oldPassword") String oldPassword,
+                       @Param("newPassword") String newPassword);
     
     /**
      * Find all users by company ID
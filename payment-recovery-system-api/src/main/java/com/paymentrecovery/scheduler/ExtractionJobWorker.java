@@ -0,0 +1,223 @@
+package com.paymentrecovery.scheduler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.paymentrecovery.service.ExtractionFailedException;
+import com.paymentrecovery.service.ExtractionJobService;
+import com.paymentrecovery.service.InvoiceExtractionService;
+import com.paymentrecovery.util.AimdConcurrencyLimit;
+import com.paymentrecovery.util.CircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.HttpResponseException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Drains the extraction job queue
+ * Claims only as many jobs as the adaptive concurrency limit has free slots and sends them to the
+ * Python service without blocking; no thread waits while the Python service works. The limit
+ * follows the service's latency (AIMD), and a circuit breaker stops claiming jobs while the service
+ * is down, so queued jobs stay PENDING instead of burning their retry attempts.
+ * Any number of nodes can poll the same table: claims use SKIP LOCKED and never overlap
+ */
+@Component
+@Slf4j
+public class ExtractionJobWorker {
+
+    private final ExtractionJobService extractionJobService;
+    private final InvoiceExtractionService extractionService;
+    private final TaskExecutor extractionCompletionExecutor;
+    private final AimdConcurrencyLimit concurrencyLimit;
+    private final CircuitBreaker circuitBreaker;
+    private final String workerId;
+
+    /**
+     * Whether the last claim filled every free slot, i.e. more jobs are probably waiting
+     */
+    private volatile boolean backlog;
+
+    @Value("${app.extraction.jobs.succeeded-retention-days:7}")
+    private int succeededRetentionDays;
+
+    public ExtractionJobWorker(ExtractionJobService extractionJobService,
+                               InvoiceExtractionService extractionService,
+                               @Qualifier("extractionCompletionExecutor") TaskExecutor extractionCompletionExecutor,
+                               @Value("${app.extraction.dispatch.initial-limit:8}") int initialLimit,
+                               @Value("${app.extraction.dispatch.min-limit:1}") int minLimit,
+                               @Value("${app.extraction.dispatch.max-limit:64}") int maxLimit,
+                               @Value("${app.extraction.dispatch.backoff-ratio:0.9}") double backoffRatio,
+                               @Value("${app.extraction.dispatch.latency-tolerance:2.0}") double latencyTolerance,
+                               @Value("${app.extraction.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                               @Value("${app.extraction.circuit-breaker.open-seconds:30}") long openSeconds) {
+        this.extractionJobService = extractionJobService;
+        this.extractionService = extractionService;
+        this.extractionCompletionExecutor = extractionCompletionExecutor;
+        this.concurrencyLimit = new AimdConcurrencyLimit(initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance);
+        this.circuitBreaker = new CircuitBreaker("python-extraction", failureThreshold, Duration.ofSeconds(openSeconds));
+        this.workerId = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Claim jobs for the free concurrency slots and dispatch them
+     * Runs on a schedule, and right after a job completes while there is a backlog, so a freed slot
+     * does not sit idle until the next poll
+     */
+    @Scheduled(fixedDelayString = "${app.extraction.jobs.poll-interval-ms:500}")
+    public void poll() {
+        int permitted = circuitBreaker.permittedCalls(concurrencyLimit.available());
+        int acquired = 0;
+        while (acquired < permitted && concurrencyLimit.tryAcquire()) {
+            acquired++;
+        }
+
+        List<ExtractionJobService.ClaimedJob> jobs = List.of();
+        if (acquired > 0) {
+            try {
+                jobs = extractionJobService.claim(workerId, acquired);
+            } catch (Exception e) {
+                log.error("Failed to claim extraction jobs", e);
+            }
+        }
+
+        backlog = acquired > 0 && jobs.size() == acquired;
+
+        // Hand back slots (and a half-open probe) that found no job
+        for (int i = jobs.size(); i < acquired; i++) {
+            concurrencyLimit.release();
+        }
+        if (jobs.isEmpty() && permitted > 0 && circuitBreaker.getState() == CircuitBreaker.State.HALF_OPEN) {
+            circuitBreaker.releaseProbe();
+        }
+
+        for (ExtractionJobService.ClaimedJob job : jobs) {
+            dispatch(job);
+        }
+    }
+
+    /**
+     * Current limit, requests in flight and circuit state
+     */
+    public Map<String, Object> getDispatchState() {
+        Map<String, Object> state = new HashMap<>();
+        state.put("workerId", workerId);
+        state.put("concurrencyLimit", concurrencyLimit.getLimit());
+        state.put("inFlight", concurrencyLimit.getInFlight());
+        state.put("circuitState", circuitBreaker.getState());
+        return state;
+    }
+
+    /**
+     * Delete succeeded jobs past the retention period
+     */
+    @Scheduled(cron = "${app.extraction.jobs.purge-cron:0 0 4 * * *}")
+    public void purgeSucceeded() {
+        extractionJobService.purgeSucceeded(succeededRetentionDays);
+    }
+
+    private void dispatch(ExtractionJobService.ClaimedJob job) {
+        log.info("Dispatching extraction job ID: {} for invoice ID: {} (attempt {})",
+                job.id(), job.invoiceId(), job.attempt());
+        CompletableFuture<InvoiceExtractionService.ExtractionResult> request =
+                extractionService.requestExtraction(job.invoiceId(), job.filePath());
+        request
+                // Job updates hit the database, so they leave the HTTP client's I/O thread
+                .thenAcceptAsync(result -> onCompleted(job, result), extractionCompletionExecutor)
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        // onCompleted never ran (e.g. the executor rejected it during shutdown); the
+                        // slot is still handed back, and the job is claimed again after its lease
+                        log.error("Failed to complete extraction job ID: {}", job.id(), error);
+                        release(request.join());
+                    }
+                });
+    }
+
+    /**
+     * Record the outcome of a job
+     * Never throws, so a failed stage after it always means it did not run
+     */
+    private void onCompleted(ExtractionJobService.ClaimedJob job, InvoiceExtractionService.ExtractionResult result) {
+        release(result);
+
+        Throwable error = result.error();
+        try {
+            if (error == null) {
+                extractionJobService.complete(job.id(), workerId);
+            } else {
+                extractionJobService.fail(job.id(), workerId, error.toString());
+            }
+        } catch (Exception e) {
+            // The lease runs out and the job is claimed again
+            log.error("Failed to record outcome of extraction job ID: {}", job.id(), e);
+        }
+
+        if (backlog) {
+            try {
+                poll();
+            } catch (Exception e) {
+                log.error("Failed to poll extraction jobs", e);
+            }
+        }
+    }
+
+    /**
+     * Hand back the job's concurrency slot, recording its request's outcome if no other job of the
+     * request has
+     */
+    private void release(InvoiceExtractionService.ExtractionResult result) {
+        if (result.batch().claim()) {
+            recordOutcome(result.batch());
+        } else {
+            concurrencyLimit.release();
+        }
+    }
+
+    /**
+     * Feed the outcome of one HTTP request to the limit and the breaker, whatever its number of items
+     * Latency is reported per item, so requests of different batch sizes stay comparable
+     */
+    private void recordOutcome(InvoiceExtractionService.BatchOutcome batch) {
+        Throwable failure = batch.getFailure();
+        if (failure == null) {
+            concurrencyLimit.onSuccess(batch.getLatencyNanos() / batch.getSize());
+            circuitBreaker.onSuccess();
+        } else if (isOverloadOrOutage(failure)) {
+            concurrencyLimit.onDropped();
+            circuitBreaker.onFailure();
+        } else {
+            // The service answered; the request itself was refused
+            concurrencyLimit.release();
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    /**
+     * Connection errors, timeouts, 5xx and 429 mean the service is down or overloaded
+     */
+    private boolean isOverloadOrOutage(Throwable cause) {
+        if (cause instanceof HttpResponseException responseException) {
+            int status = responseException.getStatusCode();
+            return status >= 500 || status == 429;
+        }
+        return !(cause instanceof ExtractionFailedException || cause instanceof JsonProcessingException);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown-host";
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.paymentrecovery.scheduler;
+
+import com.paymentrecovery.repository.CompanyReceivablesSummaryRepository;
+import com.paymentrecovery.service.ReceivablesSummaryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Scheduled maintenance of company receivables summaries
+ * Refreshes date-dependent overdue figures nightly and repairs counter drift
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReceivablesSummaryScheduler {
+
+    private final ReceivablesSummaryService summaryService;
+    private final CompanyReceivablesSummaryRepository summaryRepository;
+
+    /**
+     * Recompute overdue figures once the date has rolled over
+     */
+    @Scheduled(cron = "${app.receivables.overdue-refresh-cron:0 1 0 * * *}")
+    public void refreshOverdue() {
+        summaryService.refreshOverdue();
+    }
+
+    /**
+     * Compare every summary with the invoices table, one company per transaction
+     */
+    @Scheduled(cron = "${app.receivables.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        List<Long> companyIds = summaryRepository.findAllCompanyIds();
+        int repaired = 0;
+        for (Long companyId : companyIds) {
+            try {
+                if (summaryService.reconcile(companyId)) {
+                    repaired++;
+                }
+            } catch (Exception e) {
+                log.error("Failed to reconcile receivables summary for company ID: {}", companyId, e);
+            }
+        }
+        log.info("Reconciled {} receivables summaries, repaired {}", companyIds.size(), repaired);
+    }
+}
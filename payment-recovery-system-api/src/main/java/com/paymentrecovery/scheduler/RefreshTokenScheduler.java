@@ -0,0 +1,25 @@
+package com.paymentrecovery.scheduler;
+
+import com.paymentrecovery.service.RefreshTokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nightly removal of expired refresh tokens
+ * Every refresh leaves a used token behind, so the table would otherwise grow without bound
+ */
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenScheduler {
+
+    private final RefreshTokenService refreshTokenService;
+
+    /**
+     * Delete refresh tokens past their expiry
+     */
+    @Scheduled(cron = "${app.security.refresh-token.purge-cron:0 45 3 * * *}")
+    public void purgeExpired() {
+        refreshTokenService.purgeExpired();
+    }
+}
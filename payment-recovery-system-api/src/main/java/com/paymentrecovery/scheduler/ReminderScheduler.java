@@ -0,0 +1,44 @@
+package com.paymentrecovery.scheduler;
+
+import com.paymentrecovery.service.ReminderSchedulingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Loads the in-process reminder schedule at startup and rebuilds it nightly
+ * The rebuild re-derives every invoice's next reminder from the reminder logs,
+ * repairing anything the incremental updates missed
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReminderScheduler {
+
+    private final ReminderSchedulingService reminderSchedulingService;
+
+    /**
+     * Build the reminder schedule once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSchedule() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the reminder schedule from the database
+     */
+    @Scheduled(cron = "${app.reminders.rebuild-cron:0 15 0 * * *}")
+    public void rebuild() {
+        try {
+            reminderSchedulingService.rebuild(LocalDate.now());
+        } catch (Exception e) {
+            log.error("Failed to rebuild reminder schedule", e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.paymentrecovery.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+/**
+ * Picks the BCrypt cost for this machine
+ * Each extra cost step doubles the hashing time, so the cost is raised from the minimum until one
+ * more step would exceed the target latency
+ */
+@Slf4j
+public final class BCryptCostCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+
+    private BCryptCostCalibrator() {
+    }
+
+    /**
+     * Find the highest cost whose hash time stays within the target
+     *
+     * @param targetMillis Target time for one hash or verification
+     * @param minCost Lowest cost ever used, even on slow hardware
+     * @param maxCost Highest cost considered
+     * @return Calibrated cost
+     */
+    public static int calibrate(long targetMillis, int minCost, int maxCost) {
+        // Warm up so the first measurement does not include class loading and JIT
+        BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(4));
+
+        int cost = minCost;
+        long millis = time(cost);
+        while (cost < maxCost && millis * 2 <= targetMillis) {
+            cost++;
+            millis = time(cost);
+        }
+
+        log.info("Calibrated BCrypt cost {} ({} ms per hash, target {} ms)", cost, millis, targetMillis);
+
+        return cost;
+    }
+
+    private static long time(int cost) {
+        long start = System.nanoTime();
+        BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(cost));
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,18 @@
+package com.paymentrecovery.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a controller method parameter to the authenticated user's company ID
+ * Resolved by {@link CurrentCompanyArgumentResolver} from the JwtPrincipal already stored in the
+ * SecurityContext, so endpoints never read or parse the token themselves
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentCompany {
+}
@@ -0,0 +1,19 @@
+package com.paymentrecovery.security;
+
+/**
+ * Thrown when the password hashing executor is saturated
+ * Controllers answer with 503 and a Retry-After header instead of queueing the request
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,93 @@
+package com.paymentrecovery.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Password hashing and verification on a dedicated, bounded executor
+ * BCrypt is pure CPU work; running it on request threads lets a login storm pin every Tomcat thread.
+ * Here at most one hash per executor thread runs at a time and a short queue absorbs bursts; when the
+ * queue is full, or a queued hash is not done within the maximum wait, callers get a
+ * PasswordHashingBusyException right away
+ */
+@Service
+@Slf4j
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final AsyncTaskExecutor passwordHashingExecutor;
+
+    @Value("${app.security.password.max-wait-ms:3000}")
+    private long maxWaitMs;
+
+    @Value("${app.security.password.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Qualifier("passwordHashingExecutor") AsyncTaskExecutor passwordHashingExecutor) {
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+    }
+
+    /**
+     * Verify a password against its stored hash
+     *
+     * @throws PasswordHashingBusyException if the executor is saturated
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Hash a password with the calibrated cost
+     *
+     * @throws PasswordHashingBusyException if the executor is saturated
+     */
+    public String encode(CharSequence rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Check whether a stored hash was made with a lower cost than the calibrated one
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = passwordHashingExecutor.submit(task);
+        } catch (TaskRejectedException e) {
+            log.warn("Password hashing queue is full, rejecting request");
+            throw new PasswordHashingBusyException("Password hashing capacity exhausted", retryAfterSeconds);
+        }
+
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Password hashing did not complete within {} ms, rejecting request", maxWaitMs);
+            throw new PasswordHashingBusyException("Password hashing capacity exhausted", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
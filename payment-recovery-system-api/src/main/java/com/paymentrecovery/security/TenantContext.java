@@ -0,0 +1,47 @@
+package com.paymentrecovery.security;
+
+import com.paymentrecovery.security.jwt.JwtPrincipal;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Company of the current request
+ * Reads the JwtPrincipal that JwtAuthenticationFilter binds to the request thread, so services
+ * and repository callers can scope queries to the tenant without passing the token around
+ *
+ * Outside a request (schedulers, async listeners) there is no tenant and getCompanyId returns null
+ */
+public final class TenantContext {
+
+    private TenantContext() {
+    }
+
+    /**
+     * Get the company ID of the authenticated user
+     *
+     * @return Company ID, or null if the request is unauthenticated or the user has no company
+     */
+    public static Long getCompanyId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal.companyId();
+        }
+        return null;
+    }
+
+    /**
+     * Get the company ID of the authenticated user
+     *
+     * @return Company ID
+     * @throws ResponseStatusException with 401 if there is no company for the request
+     */
+    public static Long requireCompanyId() {
+        Long companyId = getCompanyId();
+        if (companyId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No company ID found in token");
+        }
+        return companyId;
+    }
+}
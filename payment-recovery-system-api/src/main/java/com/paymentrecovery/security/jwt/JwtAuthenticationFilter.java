@@ -20,6 +20,7 @@ import java.util.Collections;
 /**
  * JWT Authentication Filter
  * Intercepts requests and validates JWT tokens
+ * Each request's token is verified once and its claims stored as a JwtPrincipal
  */
 @Component
 @RequiredArgsConstructor
@@ -37,15 +38,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String jwt = getJwtFromRequest(request);
+            JwtPrincipal principal = StringUtils.hasText(jwt) ? tokenProvider.verifyToken(jwt) : null;
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                String role = tokenProvider.getRoleFromToken(jwt);
-
+            if (principal != null) {
                 // Create authentication token with ROLE_ prefix for Spring Security
-                String authority = "ROLE_" + role;
+                // The principal carries the verified claims, so later code never re-parses the token
+                String authority = "ROLE_" + principal.role();
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        username,
+                        principal,
                         null,
                         Collections.singletonList(new SimpleGrantedAuthority(authority))
                 );
@@ -55,7 +55,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
                 
                 log.debug("JWT authentication successful for user: {} with role: {} and authority: {}", 
-                        username, role, authority);
+                        principal.username(), principal.role(), authority);
             } else {
                 log.debug("JWT token validation failed or token not present for request: {}", request.getRequestURI());
             }
@@ -0,0 +1,21 @@
+package com.paymentrecovery.security.jwt;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * Authenticated principal built from a verified JWT
+ * Carried in the SecurityContext so the token never has to be parsed again for the request
+ *
+ * @param username Token subject
+ * @param role User role (without the ROLE_ prefix)
+ * @param companyId Company the user belongs to
+ * @param expiresAt Token expiry
+ */
+public record JwtPrincipal(String username, String role, Long companyId, Instant expiresAt) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -1,14 +1,24 @@
 package com.paymentrecovery.security.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,6 +27,8 @@ import java.util.function.Function;
 /**
  * JWT Token Provider
  * Handles JWT token generation, validation, and extraction
+ * The signing key and parser are built once; verified tokens are cached by SHA-256 hash
+ * until they expire, so repeat requests skip HMAC verification and JSON parsing
  */
 @Component
 @Slf4j
@@ -25,15 +37,46 @@ public class JwtTokenProvider {
     @Value("${spring.security.jwt.secret:your-256-bit-secret-key-change-in-production-minimum-32-characters}")
     private String jwtSecret;
 
-    @Value("${spring.security.jwt.expiration:86400000}")
-    private Long jwtExpiration; // Default 24 hours in milliseconds
+    @Value("${spring.security.jwt.expiration:900000}")
+    private Long jwtExpiration; // Default 15 minutes in milliseconds; sessions continue via refresh tokens
+
+    @Value("${app.security.jwt.verified-cache.maximum-size:10000}")
+    private long verifiedCacheMaximumSize = 10000;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private Cache<String, JwtPrincipal> verifiedTokens;
 
     /**
-     * Get secret key for signing JWT tokens
+     * Build the signing key, parser and verified-token cache once
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaximumSize)
+                .expireAfter(new Expiry<String, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), principal.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, JwtPrincipal principal, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, principal, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, JwtPrincipal principal, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     /**
@@ -64,36 +107,82 @@ public class JwtTokenProvider {
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verify a token once and return its principal
+     * Served from the verified-token cache when the same token was seen before and has not expired
+     *
+     * @param token JWT token
+     * @return Principal carrying username, role and company ID
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public JwtPrincipal getPrincipalFromToken(String token) {
+        String key = hashToken(token);
+        JwtPrincipal cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return cached;
+        }
+
+        Claims claims = getAllClaimsFromToken(token);
+        Date expiration = claims.getExpiration();
+        JwtPrincipal principal = new JwtPrincipal(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.get("companyId", Long.class),
+                expiration != null ? expiration.toInstant() : null
+        );
+        // Tokens without an expiry are never cached
+        if (expiration != null) {
+            verifiedTokens.put(key, principal);
+        }
+        return principal;
+    }
+
+    /**
+     * Verify a token and return its principal, or null if it is invalid
+     *
+     * @param token JWT token
+     * @return Principal, or null if the token is invalid or expired
+     */
+    public JwtPrincipal verifyToken(String token) {
+        try {
+            return getPrincipalFromToken(token);
+        } catch (Exception e) {
+            log.error("Token validation failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Extract username from token
      */
     public String getUsernameFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+        return getPrincipalFromToken(token).username();
     }
 
     /**
      * Extract role from token
      */
     public String getRoleFromToken(String token) {
-        return getClaimFromToken(token, claims -> claims.get("role", String.class));
+        return getPrincipalFromToken(token).role();
     }
 
     /**
      * Extract company ID from token
      */
     public Long getCompanyIdFromToken(String token) {
-        return getClaimFromToken(token, claims -> claims.get("companyId", Long.class));
+        return getPrincipalFromToken(token).companyId();
     }
 
     /**
      * Extract expiration date from token
      */
     public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
+        Instant expiresAt = getPrincipalFromToken(token).expiresAt();
+        return expiresAt != null ? Date.from(expiresAt) : null;
     }
 
     /**
@@ -108,9 +197,7 @@ public class JwtTokenProvider {
      * Get all claims from token
      */
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -152,12 +239,18 @@ public class JwtTokenProvider {
      * @return true if token is valid
      */
     public Boolean validateToken(String token) {
+        return verifyToken(token) != null;
+    }
+
+    /**
+     * SHA-256 of the token, so the cache never holds usable bearer tokens
+     */
+    private String hashToken(String token) {
         try {
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            log.error("Token validation failed: {}", e.getMessage());
-            return false;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 }
-
@@ -0,0 +1,70 @@
+package com.paymentrecovery.service;
+
+import com.paymentrecovery.cache.CacheNames;
+import com.paymentrecovery.repository.CompanyRepository;
+import com.paymentrecovery.repository.InvoiceRepository;
+import com.paymentrecovery.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admin Service
+ * Handles business logic for platform-wide admin operations
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class AdminService {
+
+    private final CompanyRepository companyRepository;
+    private final UserRepository userRepository;
+    private final InvoiceRepository invoiceRepository;
+
+    /**
+     * Get platform metrics for admin dashboard
+     * Cached; evicted whenever an invoice is created or changes status
+     *
+     * @return Map containing platform metrics
+     */
+    @Cacheable(cacheNames = CacheNames.PLATFORM_METRICS, key = "'" + CacheNames.PLATFORM_METRICS_KEY + "'")
+    public Map<String, Object> getPlatformMetrics() {
+        log.info("Calculating platform metrics for admin dashboard");
+
+        Map<String, Object> metrics = new HashMap<>();
+        
+        // Company metrics
+        long totalCompanies = companyRepository.count();
+        long activeCompanies = companyRepository.count();
+        long inactiveCompanies = 0;
+        
+        // User metrics
+        long totalUsers = userRepository.count();
+        
+        // Invoice metrics (placeholder - implement when Invoice entity is ready)
+        long totalInvoices = invoiceRepository.count();
+        long pendingInvoices = 0;
+        long paidInvoices = 0;
+        
+        // Revenue (placeholder)
+        double totalRevenue = 0.0;
+        
+        metrics.put("totalCompanies", totalCompanies);
+        metrics.put("activeCompanies", activeCompanies);
+        metrics.put("inactiveCompanies", inactiveCompanies);
+        metrics.put("totalUsers", totalUsers);
+        metrics.put("totalInvoices", totalInvoices);
+        metrics.put("pendingInvoices", pendingInvoices);
+        metrics.put("paidInvoices", paidInvoices);
+        metrics.put("totalRevenue", totalRevenue);
+        metrics.put("recentActivity", new Object[0]); // Placeholder
+        
+        return metrics;
+    }
+}
@@ -1,20 +1,22 @@
 package com.paymentrecovery.service;
 
 import com.paymentrecovery.model.dto.request.LoginRequest;
+import com.paymentrecovery.model.dto.request.RefreshTokenRequest;
 import com.paymentrecovery.model.dto.response.LoginResponse;
 import com.paymentrecovery.model.entity.User;
 import com.paymentrecovery.model.enums.UserRole;
 import com.paymentrecovery.repository.UserRepository;
+import com.paymentrecovery.security.PasswordHashingBusyException;
+import com.paymentrecovery.security.PasswordHashingService;
 import com.paymentrecovery.security.jwt.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Authentication service
- * Handles user authentication and token generation
+ * Handles user authentication, token generation and refresh-token rotation
  */
 @Service
 @RequiredArgsConstructor
@@ -22,48 +24,132 @@ import org.springframework.transaction.annotation.Transactional;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenService refreshTokenService;
 
     /**
-     * Authenticate user and generate token
+     * Authenticate user and generate tokens
+     * The password check is the expensive part (BCrypt); clients keep their session alive with
+     * {@link #refresh(RefreshTokenRequest)} instead of logging in again
+     * Not transactional: the user is loaded in a short read, the password is checked while no connection
+     * is held, and the re-hash and refresh token are written in their own short transactions
      * 
      * @param loginRequest Login credentials
-     * @return LoginResponse with token and user info
+     * @return LoginResponse with access token, refresh token and user info
+     * @throws PasswordHashingBusyException if password hashing capacity is exhausted
      * @throws RuntimeException if authentication fails
      */
-    @Transactional(readOnly = true)
     public LoginResponse login(LoginRequest loginRequest) {
         log.debug("Attempting to authenticate user: {}", loginRequest.getUsername());
         
         // Find user by username (across all companies for admin, or specific company for regular users)
-        User user = userRepository.findByUsername(loginRequest.getUsername())
+        User user = userRepository.findWithCompanyByUsername(loginRequest.getUsername())
             .orElseThrow(() -> {
                 log.warn("Authentication failed: User not found - {}", loginRequest.getUsername());
                 return new RuntimeException("Invalid username or password");
             });
 
+        checkCanLogin(user);
+
+        // Verify password; may wait for the hashing executor, so no transaction is open here
+        if (!passwordHashingService.matches(loginRequest.getPassword(), user.getPassword())) {
+            log.warn("Authentication failed: Invalid password for user - {}", loginRequest.getUsername());
+            throw new RuntimeException("Invalid username or password");
+        }
+
+        rehashIfNeeded(user, loginRequest.getPassword());
+
+        LoginResponse response = buildResponse(user, refreshTokenService.issue(user.getId()));
+
+        log.info("User authenticated successfully: {} with role: {}", user.getUsername(), response.getRole());
+
+        return response;
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and a new refresh token
+     * No password check: the refresh token is looked up by hash, so this costs a few queries
+     * instead of a BCrypt verification. The presented refresh token cannot be used again.
+     *
+     * Runs without rollback on failure, so a detected token reuse stays revoked
+     *
+     * @param request Refresh token request
+     * @return LoginResponse with new access and refresh tokens
+     * @throws RuntimeException if the refresh token is invalid or the user can no longer log in
+     */
+    @Transactional(noRollbackFor = RuntimeException.class)
+    public LoginResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenService.IssuedToken issued = refreshTokenService.rotate(request.getRefreshToken());
+
+        User user = userRepository.findById(issued.userId())
+            .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+        try {
+            checkCanLogin(user);
+        } catch (RuntimeException e) {
+            refreshTokenService.revoke(issued.token());
+            throw e;
+        }
+
+        log.debug("Refreshed tokens for user: {}", user.getUsername());
+
+        return buildResponse(user, issued.token());
+    }
+
+    /**
+     * Revoke a refresh token and every token rotated from the same login
+     *
+     * @param request Refresh token request
+     */
+    @Transactional
+    public void logout(RefreshTokenRequest request) {
+        refreshTokenService.revoke(request.getRefreshToken());
+    }
+
+    /**
+     * Re-hash the password with the calibrated BCrypt cost if it was stored with a lower one
+     * Only possible at login, while the plain password is known. Skipped when hashing capacity is
+     * exhausted; the next login tries again
+     * The hash is computed outside any transaction and stored with a single conditional update
+     */
+    private void rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordHashingService.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            String rehashed = passwordHashingService.encode(rawPassword);
+            if (userRepository.updatePassword(user.getId(), user.getPassword(), rehashed) > 0) {
+                user.setPassword(rehashed);
+                log.info("Re-hashed password with calibrated cost for user: {}", user.getUsername());
+            }
+        } catch (PasswordHashingBusyException e) {
+            log.debug("Skipped password re-hash for user: {} - {}", user.getUsername(), e.getMessage());
+        }
+    }
+
+    /**
+     * Check that the user is active and, for non-admin users, that the company is approved
+     */
+    private void checkCanLogin(User user) {
         // Check if user is active
         if (!Boolean.TRUE.equals(user.getIsActive())) {
-            log.warn("Authentication failed: User is inactive - {}", loginRequest.getUsername());
+            log.warn("Authentication failed: User is inactive - {}", user.getUsername());
             throw new RuntimeException("User account is inactive");
         }
 
         // Check if company is approved (for non-admin users)
         if (user.getRole() != UserRole.ADMIN && !Boolean.TRUE.equals(user.getCompany().getIsApproved())) {
             log.warn("Authentication failed: Company not approved - Company ID: {}, User: {}", 
-                    user.getCompany().getId(), loginRequest.getUsername());
+                    user.getCompany().getId(), user.getUsername());
             throw new RuntimeException("Your company registration is pending admin approval. " +
                     "Please wait for administrator approval before logging in.");
         }
+    }
 
-        // Verify password
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
-            log.warn("Authentication failed: Invalid password for user - {}", loginRequest.getUsername());
-            throw new RuntimeException("Invalid username or password");
-        }
-
-        // Generate JWT token
+    /**
+     * Generate the access token and build the login response
+     */
+    private LoginResponse buildResponse(User user, String refreshToken) {
         // Map ACCOUNT role to COMPANY for frontend compatibility
         String roleName = user.getRole() == UserRole.ACCOUNT ? "COMPANY" : user.getRole().name();
         String token = jwtTokenProvider.generateToken(
@@ -72,15 +158,13 @@ public class AuthService {
             user.getCompany().getId()
         );
 
-        log.info("User authenticated successfully: {} with role: {}", user.getUsername(), roleName);
-
         // Build response
         LoginResponse response = new LoginResponse();
         response.setToken(token);
+        response.setRefreshToken(refreshToken);
         response.setRole(roleName);
         response.setUsername(user.getUsername());
 
         return response;
     }
 }
-
@@ -7,11 +7,12 @@ import com.paymentrecovery.model.entity.User;
 import com.paymentrecovery.model.enums.UserRole;
 import com.paymentrecovery.repository.CompanyRepository;
 import com.paymentrecovery.repository.UserRepository;
+import com.paymentrecovery.security.PasswordHashingBusyException;
+import com.paymentrecovery.security.PasswordHashingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Company registration service
@@ -24,20 +25,36 @@ public class CompanyRegistrationService {
 
     private final CompanyRepository companyRepository;
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Register a new company
      * Company will be created in PENDING approval status
      * Admin must approve before users can login
+     * The password is hashed before the transaction starts: hashing may wait for the bounded hashing
+     * executor, and no pooled connection is held meanwhile
      * 
      * @param request Registration request
      * @return Registration response
+     * @throws PasswordHashingBusyException if password hashing capacity is exhausted
      */
-    @Transactional
     public CompanyRegistrationResponse registerCompany(CompanyRegistrationRequest request) {
         log.info("Processing company registration for: {}", request.getCompanyName());
 
+        String passwordHash = passwordHashingService.encode(request.getPassword());
+
+        return transactionTemplate.execute(status -> createCompany(request, passwordHash));
+    }
+
+    /**
+     * Create the company and its admin user
+     *
+     * @param request Registration request
+     * @param passwordHash Hash of the admin user's password
+     * @return Registration response
+     */
+    private CompanyRegistrationResponse createCompany(CompanyRegistrationRequest request, String passwordHash) {
         // Check if GST number already exists (if provided)
         if (request.getGstNumber() != null && !request.getGstNumber().trim().isEmpty()) {
             companyRepository.findByGstNumber(request.getGstNumber())
@@ -67,7 +84,7 @@ public class CompanyRegistrationService {
         User adminUser = new User();
         adminUser.setCompany(savedCompany);
         adminUser.setUsername(request.getUsername());
-        adminUser.setPassword(passwordEncoder.encode(request.getPassword()));
+        adminUser.setPassword(passwordHash);
         adminUser.setRole(UserRole.ACCOUNT); // Company admin role
         adminUser.setIsActive(true);
         
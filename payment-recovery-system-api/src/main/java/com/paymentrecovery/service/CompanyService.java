@@ -1,15 +1,14 @@
 package com.paymentrecovery.service;
 
-import com.paymentrecovery.model.enums.InvoiceStatus;
-import com.paymentrecovery.repository.InvoiceRepository;
+import com.paymentrecovery.cache.CacheNames;
+import com.paymentrecovery.model.entity.CompanyReceivablesSummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,36 +22,32 @@ import java.util.Map;
 @Transactional(readOnly = true)
 public class CompanyService {
 
-    private final InvoiceRepository invoiceRepository;
+    private final ReceivablesSummaryService receivablesSummaryService;
 
     /**
      * Get dashboard metrics for a company
+     * Cached per company; evicted on invoice status changes and at midnight
+     * Not read-only: a missing or out-of-date summary row is rebuilt on read
      * 
      * @param companyId Company ID
      * @return Map containing dashboard metrics
      */
+    @Transactional
+    @Cacheable(cacheNames = CacheNames.COMPANY_DASHBOARD_METRICS, key = "#companyId")
     public Map<String, Object> getDashboardMetrics(Long companyId) {
         log.info("Calculating dashboard metrics for company ID: {}", companyId);
 
-        // Calculate invoice counts
+        // Single primary-key lookup; the summary is maintained on every invoice transition
         // Total invoices = PENDING + PAID (active invoices, excluding DRAFT)
-        long pendingInvoices = invoiceRepository.countByCompanyIdAndStatus(companyId, InvoiceStatus.PENDING);
-        long paidInvoices = invoiceRepository.countByCompanyIdAndStatus(companyId, InvoiceStatus.PAID);
-        long totalInvoices = pendingInvoices + paidInvoices; // Only count active invoices (not DRAFT)
-
-        // Calculate amounts
-        BigDecimal pendingAmount = invoiceRepository.sumTotalAmountByCompanyIdAndStatus(companyId, InvoiceStatus.PENDING);
-        
-        LocalDate today = LocalDate.now();
-        BigDecimal overdueAmount = invoiceRepository.sumOverdueAmountByCompany(companyId, InvoiceStatus.PENDING, today);
-        
-        // Calculate money recovered this month (paid invoices this month)
-        LocalDateTime startOfMonth = LocalDate.now().withDayOfMonth(1).atStartOfDay();
-        LocalDateTime startOfNextMonth = startOfMonth.plusMonths(1);
-        BigDecimal moneyRecoveredThisMonth = invoiceRepository.sumPaidAmountThisMonthByCompany(
-                companyId, InvoiceStatus.PAID, startOfMonth, startOfNextMonth);
+        CompanyReceivablesSummary summary = receivablesSummaryService.getSummary(companyId);
 
-        long overdueInvoices = invoiceRepository.findOverdueInvoicesByCompany(companyId, InvoiceStatus.PENDING, today).size();
+        long pendingInvoices = summary.getPendingInvoices();
+        long paidInvoices = summary.getPaidInvoices();
+        long totalInvoices = pendingInvoices + paidInvoices; // Only count active invoices (not DRAFT)
+        long overdueInvoices = summary.getOverdueInvoices();
+        BigDecimal pendingAmount = summary.getPendingAmount();
+        BigDecimal overdueAmount = summary.getOverdueAmount();
+        BigDecimal moneyRecoveredThisMonth = summary.getMoneyRecoveredThisMonth();
 
         // Build response
         Map<String, Object> metrics = new HashMap<>();
@@ -52,8 +52,9 @@ public class DocumentService {
     ) throws IOException {
         log.info("Uploading document: {} for company: {}", file.getOriginalFilename(), companyId);
 
-        // Validate file type
-        if (!documentTypeDetector.isAllowedFileType(file)) {
+        // Detect and validate document type (checks the declared type against the file's content)
+        DocumentType documentType = documentTypeDetector.detectDocumentType(file);
+        if (documentType == DocumentType.OTHER) {
             throw new IllegalArgumentException("File type not allowed. Supported: PDF, Images, DOC, Excel");
         }
 
@@ -75,9 +76,6 @@ public class DocumentService {
             }
         }
 
-        // Detect document type
-        DocumentType documentType = documentTypeDetector.detectDocumentType(file);
-
         // Store file
         String filePath = fileStorageUtil.storeFile(file, companyId);
 
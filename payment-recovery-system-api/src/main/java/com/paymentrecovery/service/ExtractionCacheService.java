@@ -0,0 +1,117 @@
+package com.paymentrecovery.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.paymentrecovery.model.entity.Invoice;
+import com.paymentrecovery.model.entity.StoredFile;
+import com.paymentrecovery.repository.StoredFileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent extraction result cache, keyed by file content hash and extractor version
+ * Results live on the StoredFile row of the extracted content. An upload of content with a result
+ * from the current extractor version (app.extraction.cache.extractor-version) gets a copy at once,
+ * without a Python call; bumping the version when the extractors change invalidates older results.
+ * Filled only from extractor output, in the transaction that stores the results of extraction jobs
+ * (InvoiceService.storeExtractionResults); data posted to the extracted-data endpoints is not cached
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExtractionCacheService {
+
+    private final StoredFileRepository storedFileRepository;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Value("${app.extraction.cache.extractor-version:1}")
+    private String extractorVersion;
+
+    /**
+     * Look up the cached extraction result for an upload
+     *
+     * @param storedFile Stored file of the uploaded content, or null if the content is new
+     * @return Copy of the cached result, or null on a miss
+     */
+    public JsonNode lookup(StoredFile storedFile) {
+        if (storedFile != null && storedFile.getExtractedData() != null
+                && extractorVersion.equals(storedFile.getExtractorVersion())) {
+            hits.increment();
+            return storedFile.getExtractedData().deepCopy();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Cache the extraction results of many invoices under their files' content hashes
+     * Only results produced by the extractor belong here, never data posted by users. Stored files
+     * are loaded with one IN query per company, on the (company_id, content_hash) unique key; the
+     * updates are flushed with the caller's transaction. Invoices without a content hash (entered
+     * manually, or uploaded before deduplication) are skipped
+     *
+     * @param invoices Invoices whose extracted data was just stored
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void storeAll(List<Invoice> invoices) {
+        Map<Long, Set<String>> contentHashesByCompany = invoices.stream()
+                .filter(invoice -> invoice.getContentHash() != null)
+                .collect(Collectors.groupingBy(invoice -> invoice.getCompany().getId(),
+                        Collectors.mapping(Invoice::getContentHash, Collectors.toSet())));
+
+        Map<String, StoredFile> storedFiles = new HashMap<>();
+        contentHashesByCompany.forEach((companyId, contentHashes) -> {
+            for (StoredFile storedFile : storedFileRepository.findByCompanyIdAndContentHashIn(companyId, contentHashes)) {
+                storedFiles.put(storedFile.getCompanyId() + ":" + storedFile.getContentHash(), storedFile);
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Invoice invoice : invoices) {
+            if (invoice.getContentHash() == null) {
+                continue;
+            }
+            StoredFile storedFile = storedFiles.get(invoice.getCompany().getId() + ":" + invoice.getContentHash());
+            if (storedFile != null) {
+                cache(storedFile, invoice.getExtractedData(), now);
+            }
+        }
+    }
+
+    /**
+     * Hit and miss counts since startup, and the number of results cached for the current version
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("extractorVersion", extractorVersion);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        stats.put("cachedResults", storedFileRepository.countByExtractorVersion(extractorVersion));
+        return stats;
+    }
+
+    private void cache(StoredFile storedFile, JsonNode extractedData, LocalDateTime now) {
+        storedFile.setExtractedData(extractedData.deepCopy());
+        storedFile.setExtractorVersion(extractorVersion);
+        storedFile.setExtractedAt(now);
+        log.debug("Cached extraction result for content hash: {}", storedFile.getContentHash());
+    }
+}
@@ -0,0 +1,12 @@
+package com.paymentrecovery.service;
+
+/**
+ * Thrown when the Python service reports that it could not process an invoice
+ * The service itself answered, so this says nothing about its load
+ */
+public class ExtractionFailedException extends RuntimeException {
+
+    public ExtractionFailedException(String message) {
+        super(message);
+    }
+}
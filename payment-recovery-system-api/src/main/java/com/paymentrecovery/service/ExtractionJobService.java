@@ -0,0 +1,217 @@
+package com.paymentrecovery.service;
+
+import com.paymentrecovery.model.entity.ExtractionJob;
+import com.paymentrecovery.model.enums.ExtractionJobStatus;
+import com.paymentrecovery.repository.ExtractionJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Durable extraction job queue on the extraction_jobs table
+ * Jobs are enqueued in the upload transaction, so an invoice is never committed without its job.
+ * Workers claim jobs with FOR UPDATE SKIP LOCKED and hold them under a lease; failed attempts are
+ * retried with exponential backoff and jitter until the attempt limit, then the job is dead-lettered
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExtractionJobService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ExtractionJobRepository extractionJobRepository;
+
+    @Value("${app.extraction.jobs.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${app.extraction.jobs.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${app.extraction.jobs.backoff-base-seconds:10}")
+    private long backoffBaseSeconds;
+
+    @Value("${app.extraction.jobs.backoff-max-seconds:3600}")
+    private long backoffMaxSeconds;
+
+    /**
+     * Job handed to a worker
+     *
+     * @param id Job ID
+     * @param invoiceId Invoice ID
+     * @param filePath Stored file path
+     * @param attempt Attempt number, starting at 1
+     */
+    public record ClaimedJob(Long id, Long invoiceId, String filePath, int attempt) {
+    }
+
+    /**
+     * Enqueue extraction for an uploaded invoice file
+     * Must run in the caller's transaction, so the job commits or rolls back with the invoice
+     *
+     * @param invoiceId Invoice ID
+     * @param filePath Stored file path
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Long invoiceId, String filePath) {
+        ExtractionJob job = new ExtractionJob();
+        job.setInvoiceId(invoiceId);
+        job.setFilePath(filePath);
+        job.setStatus(ExtractionJobStatus.PENDING);
+        job.setAttempts(0);
+        job.setRunAt(LocalDateTime.now());
+        extractionJobRepository.save(job);
+
+        log.debug("Enqueued extraction job for invoice ID: {}", invoiceId);
+    }
+
+    /**
+     * Claim up to limit runnable jobs for a worker
+     * Rows locked by other workers are skipped, not waited on; the lease is recorded before the
+     * transaction commits, so the jobs stay claimed after the row locks are released
+     *
+     * @param workerId Worker identifier, recorded as the lease holder
+     * @param limit Maximum number of jobs to claim
+     * @return Claimed jobs
+     */
+    @Transactional
+    public List<ClaimedJob> claim(String workerId, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ExtractionJob> jobs = extractionJobRepository.findRunnableForUpdate(now, PageRequest.of(0, limit));
+
+        for (ExtractionJob job : jobs) {
+            if (job.getStatus() == ExtractionJobStatus.RUNNING) {
+                log.warn("Lease of {} expired on extraction job ID: {}, reclaiming", job.getLockedBy(), job.getId());
+            }
+            job.setStatus(ExtractionJobStatus.RUNNING);
+            job.setAttempts(job.getAttempts() + 1);
+            job.setLockedBy(workerId);
+            job.setLockedUntil(now.plusSeconds(leaseSeconds));
+        }
+
+        return jobs.stream()
+                .map(job -> new ClaimedJob(job.getId(), job.getInvoiceId(), job.getFilePath(), job.getAttempts()))
+                .toList();
+    }
+
+    /**
+     * Mark a job as succeeded
+     * Ignored if the worker lost the lease meanwhile and another worker now holds the job
+     *
+     * @param jobId Job ID
+     * @param workerId Worker that ran the job
+     */
+    @Transactional
+    public void complete(Long jobId, String workerId) {
+        extractionJobRepository.findById(jobId)
+                .filter(job -> isLeaseHolder(job, workerId))
+                .ifPresent(job -> {
+                    job.setStatus(ExtractionJobStatus.SUCCEEDED);
+                    job.setLockedBy(null);
+                    job.setLockedUntil(null);
+                    job.setLastError(null);
+                });
+    }
+
+    /**
+     * Record a failed attempt
+     * The job is retried after an exponential backoff with jitter, or dead-lettered once it has
+     * used all its attempts
+     *
+     * @param jobId Job ID
+     * @param workerId Worker that ran the job
+     * @param error Failure description
+     */
+    @Transactional
+    public void fail(Long jobId, String workerId, String error) {
+        extractionJobRepository.findById(jobId)
+                .filter(job -> isLeaseHolder(job, workerId))
+                .ifPresent(job -> {
+                    job.setLockedBy(null);
+                    job.setLockedUntil(null);
+                    job.setLastError(truncate(error));
+                    if (job.getAttempts() >= maxAttempts) {
+                        job.setStatus(ExtractionJobStatus.DEAD);
+                        log.error("Extraction job ID: {} for invoice ID: {} dead-lettered after {} attempts: {}",
+                                job.getId(), job.getInvoiceId(), job.getAttempts(), error);
+                    } else {
+                        long delay = backoffSeconds(job.getAttempts());
+                        job.setStatus(ExtractionJobStatus.PENDING);
+                        job.setRunAt(LocalDateTime.now().plusSeconds(delay));
+                        log.warn("Extraction job ID: {} for invoice ID: {} failed (attempt {}), retrying in {}s: {}",
+                                job.getId(), job.getInvoiceId(), job.getAttempts(), delay, error);
+                    }
+                });
+    }
+
+    /**
+     * Count jobs in each status
+     *
+     * @return Job count per status
+     */
+    @Transactional(readOnly = true)
+    public Map<ExtractionJobStatus, Long> countByStatus() {
+        Map<ExtractionJobStatus, Long> counts = new EnumMap<>(ExtractionJobStatus.class);
+        for (ExtractionJobStatus status : ExtractionJobStatus.values()) {
+            counts.put(status, extractionJobRepository.countByStatus(status));
+        }
+        return counts;
+    }
+
+    /**
+     * Put a dead-lettered job back in the queue
+     *
+     * @param jobId Job ID
+     * @return true if the job was DEAD and is now queued again
+     */
+    @Transactional
+    public boolean retryDead(Long jobId) {
+        return extractionJobRepository.requeueDead(jobId, LocalDateTime.now()) > 0;
+    }
+
+    /**
+     * Delete succeeded jobs older than the retention period
+     *
+     * @param retentionDays Days to keep succeeded jobs
+     * @return Number of jobs deleted
+     */
+    @Transactional
+    public int purgeSucceeded(int retentionDays) {
+        int deleted = extractionJobRepository.deleteSucceededBefore(LocalDateTime.now().minusDays(retentionDays));
+        log.info("Purged {} succeeded extraction jobs", deleted);
+        return deleted;
+    }
+
+    private boolean isLeaseHolder(ExtractionJob job, String workerId) {
+        if (job.getStatus() != ExtractionJobStatus.RUNNING || !workerId.equals(job.getLockedBy())) {
+            log.warn("Worker {} no longer holds the lease on extraction job ID: {}", workerId, job.getId());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Exponential backoff with full jitter: a random delay up to base * 2^(attempt - 1), capped
+     */
+    private long backoffSeconds(int attempt) {
+        long ceiling = Math.min(backoffMaxSeconds, backoffBaseSeconds << Math.min(attempt - 1, 20));
+        return Math.max(1, ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    private String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
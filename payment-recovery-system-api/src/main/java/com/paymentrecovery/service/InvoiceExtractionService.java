@@ -1,63 +1,353 @@
 package com.paymentrecovery.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymentrecovery.model.dto.request.ExtractInvoiceBatchRequest;
 import com.paymentrecovery.model.dto.request.ExtractInvoiceDataRequest;
-import lombok.RequiredArgsConstructor;
+import com.paymentrecovery.model.dto.request.ExtractedInvoiceDataBatchItem;
+import com.paymentrecovery.model.dto.response.ExtractedDataBatchItemResult;
+import com.paymentrecovery.model.dto.response.ExtractionBatchItemResult;
+import com.paymentrecovery.model.dto.response.ExtractionBatchResponse;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.HttpResponseException;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Service for calling Python extraction service
- * Handles async communication with Python service for invoice data extraction
+ * Sends extraction requests on behalf of ExtractionJobWorker without blocking a thread while the
+ * Python service works. The extracted data comes back in the batch response and is stored through
+ * InvoiceService.storeExtractionResults, which also fills the extraction cache
+ *
+ * Requests are micro-batched: invoices requested close together go to the Python service as one
+ * multi-item request, so it can amortize model and OCR warm-up. A batch is sent as soon as it holds
+ * app.python.extraction.batch.max-size items, or app.python.extraction.batch.linger-ms after its
+ * first item, so a lone upload waits at most the linger time. The response timeout grows with the
+ * number of items in the request
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class InvoiceExtractionService {
 
     @Value("${app.python.extraction.url:http://localhost:8000}")
     private String pythonServiceUrl;
 
-    @Value("${app.python.extraction.endpoint:/api/extract-invoice}")
+    @Value("${app.python.extraction.endpoint:/api/extract-invoices}")
     private String extractionEndpoint;
 
     @Value("${app.python.extraction.timeout:30000}")
-    private int timeout;
+    private long responseTimeoutMs;
+
+    @Value("${app.python.extraction.batch.item-timeout-ms:5000}")
+    private long itemTimeoutMs;
+
+    @Value("${app.python.extraction.batch.max-size:16}")
+    private int maxBatchSize;
 
-    private final RestTemplate restTemplate;
+    @Value("${app.python.extraction.batch.linger-ms:20}")
+    private long lingerMs;
+
+    private final CloseableHttpAsyncClient httpAsyncClient;
+    private final RequestConfig httpRequestConfig;
+    private final ObjectMapper objectMapper;
+    private final TaskScheduler taskScheduler;
+    private final InvoiceService invoiceService;
+    private final TaskExecutor extractionCompletionExecutor;
 
     /**
-     * Trigger invoice data extraction in Python service
-     * This is a fire-and-forget operation (async, non-blocking)
-     * The method executes asynchronously and does not block the caller
+     * Items waiting for the current batch to be sent
+     */
+    private List<PendingExtraction> pending = new ArrayList<>();
+
+    /**
+     * Linger timeout of the current batch, or null while no batch is open
+     */
+    private ScheduledFuture<?> lingerFlush;
+
+    public InvoiceExtractionService(CloseableHttpAsyncClient httpAsyncClient,
+                                    RequestConfig httpRequestConfig,
+                                    ObjectMapper objectMapper,
+                                    TaskScheduler taskScheduler,
+                                    InvoiceService invoiceService,
+                                    @Qualifier("extractionCompletionExecutor") TaskExecutor extractionCompletionExecutor) {
+        this.httpAsyncClient = httpAsyncClient;
+        this.httpRequestConfig = httpRequestConfig;
+        this.objectMapper = objectMapper;
+        this.taskScheduler = taskScheduler;
+        this.invoiceService = invoiceService;
+        this.extractionCompletionExecutor = extractionCompletionExecutor;
+    }
+
+    /**
+     * Request invoice data extraction from the Python service
+     * Returns immediately; the future may complete on the HTTP client's I/O thread, so callers must
+     * not block in dependent stages without switching to their own executor
      *
      * @param invoiceId Invoice ID
      * @param filePath File path of the uploaded invoice
+     * @return Future completed once the item is done, stored or not; it never completes exceptionally
      */
-    @Async("taskExecutor")
-    public void triggerExtraction(Long invoiceId, String filePath) {
-        log.info("Triggering invoice data extraction for invoice ID: {}, file: {}", invoiceId, filePath);
+    public CompletableFuture<ExtractionResult> requestExtraction(Long invoiceId, String filePath) {
+        PendingExtraction item = new PendingExtraction(new ExtractInvoiceDataRequest(invoiceId, filePath),
+                new CompletableFuture<>());
+
+        List<PendingExtraction> batch = null;
+        synchronized (this) {
+            pending.add(item);
+            if (pending.size() >= maxBatchSize || lingerMs <= 0) {
+                batch = takePending();
+            } else if (lingerFlush == null) {
+                lingerFlush = taskScheduler.schedule(this::flush, Instant.now().plusMillis(lingerMs));
+            }
+        }
+        if (batch != null) {
+            send(batch);
+        }
+
+        return item.result();
+    }
 
+    /**
+     * Send the open batch once its linger time is up
+     */
+    private void flush() {
+        List<PendingExtraction> batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private List<PendingExtraction> takePending() {
+        if (lingerFlush != null) {
+            lingerFlush.cancel(false);
+            lingerFlush = null;
+        }
+        List<PendingExtraction> batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    private void send(List<PendingExtraction> batch) {
+        String url = pythonServiceUrl + extractionEndpoint;
+        List<ExtractInvoiceDataRequest> items = batch.stream().map(PendingExtraction::request).toList();
+
+        SimpleHttpRequest request;
+        try {
+            request = SimpleRequestBuilder.post(url)
+                    .setBody(objectMapper.writeValueAsString(new ExtractInvoiceBatchRequest(items)),
+                            ContentType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            failRequest(batch, 0, e);
+            return;
+        }
+        request.setConfig(RequestConfig.copy(httpRequestConfig)
+                .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMs(batch.size())))
+                .build());
+
+        log.debug("Calling Python extraction service: {} with a batch of {} invoices", url, batch.size());
+        long start = System.nanoTime();
+
+        httpAsyncClient.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                if (response.getCode() >= 200 && response.getCode() < 300) {
+                    onBatchResponse(batch, response, System.nanoTime() - start);
+                } else {
+                    failRequest(batch, System.nanoTime() - start, new HttpResponseException(response.getCode(),
+                            "Python extraction service responded " + response.getCode()));
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                failRequest(batch, System.nanoTime() - start, e);
+            }
+
+            @Override
+            public void cancelled() {
+                failRequest(batch, System.nanoTime() - start,
+                        new CancellationException("Extraction request cancelled"));
+            }
+        });
+    }
+
+    /**
+     * Response timeout of a request: the single-item timeout, plus the per-item allowance for every
+     * further item
+     */
+    private long responseTimeoutMs(int items) {
+        return responseTimeoutMs + itemTimeoutMs * (items - 1);
+    }
+
+    /**
+     * Hand the parsed batch response over to be stored
+     */
+    private void onBatchResponse(List<PendingExtraction> batch, SimpleHttpResponse response, long latencyNanos) {
+        ExtractionBatchResponse batchResponse;
         try {
-            ExtractInvoiceDataRequest request = new ExtractInvoiceDataRequest(invoiceId, filePath);
-            String url = pythonServiceUrl + extractionEndpoint;
+            batchResponse = objectMapper.readValue(response.getBodyText(), ExtractionBatchResponse.class);
+        } catch (IOException e) {
+            failRequest(batch, latencyNanos, e);
+            return;
+        }
 
-            log.debug("Calling Python extraction service: {}", url);
+        Map<Long, ExtractionBatchItemResult> results = new HashMap<>();
+        if (batchResponse.getResults() != null) {
+            for (ExtractionBatchItemResult result : batchResponse.getResults()) {
+                results.put(result.getInvoiceId(), result);
+            }
+        }
 
-            // Fire-and-forget: Make async call without waiting for response
-            restTemplate.postForObject(url, request, String.class);
+        BatchOutcome outcome = new BatchOutcome(batch.size(), latencyNanos, null);
+        // Storing hits the database, so it leaves the HTTP client's I/O thread
+        try {
+            extractionCompletionExecutor.execute(() -> storeResults(batch, results, outcome));
+        } catch (TaskRejectedException e) {
+            batch.forEach(item -> item.complete(outcome, e));
+        }
+    }
 
-            log.info("Successfully triggered extraction for invoice ID: {}", invoiceId);
+    /**
+     * Store the extracted data of the accepted items in one transaction, then complete every item
+     * An item only succeeds once its data is stored, so its job is never marked done without it
+     */
+    private void storeResults(List<PendingExtraction> batch, Map<Long, ExtractionBatchItemResult> results,
+                              BatchOutcome outcome) {
+        List<PendingExtraction> accepted = new ArrayList<>();
+        List<ExtractedInvoiceDataBatchItem> items = new ArrayList<>();
+        for (PendingExtraction item : batch) {
+            Long invoiceId = item.request().getInvoiceId();
+            ExtractionBatchItemResult result = results.get(invoiceId);
+            if (result == null) {
+                item.complete(outcome,
+                        new ExtractionFailedException("No result for invoice ID " + invoiceId + " in batch response"));
+            } else if (!Boolean.TRUE.equals(result.getSuccess())) {
+                item.complete(outcome, new ExtractionFailedException(result.getError()));
+            } else {
+                accepted.add(item);
+                items.add(new ExtractedInvoiceDataBatchItem(invoiceId, result.getExtractedData()));
+            }
+        }
+        if (accepted.isEmpty()) {
+            log.info("Python extraction service accepted none of {} invoices in batch", batch.size());
+            return;
+        }
 
+        List<ExtractedDataBatchItemResult> stored;
+        try {
+            stored = invoiceService.storeExtractionResults(items);
         } catch (Exception e) {
-            // Log error but don't throw - this is fire-and-forget
-            log.error(
-                    "Error triggering extraction for invoice ID: {}, file: {}",
-                    invoiceId, filePath, e
-            );
+            log.error("Failed to store extracted data for a batch of {} invoices", items.size(), e);
+            accepted.forEach(item -> item.complete(outcome,
+                    new ExtractionFailedException("Failed to store extracted data: " + e.getMessage())));
+            return;
         }
+
+        for (int i = 0; i < accepted.size(); i++) {
+            ExtractedDataBatchItemResult result = stored.get(i);
+            accepted.get(i).complete(outcome,
+                    Boolean.TRUE.equals(result.getStored()) ? null : new ExtractionFailedException(result.getError()));
+        }
+
+        log.info("Python extraction service accepted {} of {} invoices in batch", accepted.size(), batch.size());
     }
-}
 
+    /**
+     * Fail every item of a request that failed as a whole
+     */
+    private void failRequest(List<PendingExtraction> batch, long latencyNanos, Exception e) {
+        BatchOutcome outcome = new BatchOutcome(batch.size(), latencyNanos, e);
+        batch.forEach(item -> item.complete(outcome, e));
+    }
+
+    /**
+     * Outcome of one HTTP request to the Python service, shared by every item sent in it
+     * Latency and overload belong to the request rather than to its items, so callers record them
+     * once per request, by whichever item claims the outcome first
+     */
+    public static final class BatchOutcome {
+
+        /**
+         * Number of items in the request
+         */
+        @Getter
+        private final int size;
+
+        /**
+         * Round trip of the whole request
+         */
+        @Getter
+        private final long latencyNanos;
+
+        /**
+         * Why the request failed as a whole (non-2xx status, I/O error, unreadable response), or null
+         * if the service answered
+         */
+        @Getter
+        private final Throwable failure;
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        BatchOutcome(int size, long latencyNanos, Throwable failure) {
+            this.size = size;
+            this.latencyNanos = latencyNanos;
+            this.failure = failure;
+        }
+
+        /**
+         * Claim the outcome for recording
+         *
+         * @return True for exactly one caller
+         */
+        public boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * Result of one item
+     *
+     * @param batch Outcome of the request the item was sent in
+     * @param error Why the item's data was not extracted and stored, or null once it is stored
+     */
+    public record ExtractionResult(BatchOutcome batch, Throwable error) {
+    }
+
+    /**
+     * Item of the open batch and the future handed to its caller
+     */
+    private record PendingExtraction(ExtractInvoiceDataRequest request, CompletableFuture<ExtractionResult> result) {
+
+        void complete(BatchOutcome outcome, Throwable error) {
+            result.complete(new ExtractionResult(outcome, error));
+        }
+    }
+}
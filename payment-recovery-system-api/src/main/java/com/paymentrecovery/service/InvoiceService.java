@@ -2,26 +2,45 @@ package com.paymentrecovery.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymentrecovery.model.dto.request.ExtractedInvoiceDataBatchItem;
 import com.paymentrecovery.model.dto.request.ExtractedInvoiceDataRequest;
+import com.paymentrecovery.event.InvoiceChangedEvent;
+import com.paymentrecovery.model.dto.response.ExtractedDataBatchItemResult;
 import com.paymentrecovery.model.dto.response.InvoiceReminderDto;
 import com.paymentrecovery.model.entity.Company;
 import com.paymentrecovery.model.entity.Customer;
 import com.paymentrecovery.model.entity.Invoice;
+import com.paymentrecovery.model.entity.StoredFile;
 import com.paymentrecovery.model.enums.InvoiceStatus;
 import com.paymentrecovery.repository.CompanyRepository;
 import com.paymentrecovery.repository.CustomerRepository;
 import com.paymentrecovery.repository.InvoiceRepository;
-import com.paymentrecovery.service.InvoiceExtractionService;
+import com.paymentrecovery.repository.StoredFileRepository;
 import com.paymentrecovery.util.InvoiceFileStorageUtil;
 import com.paymentrecovery.util.InvoiceFileTypeValidator;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -33,16 +52,28 @@ import java.util.stream.Collectors;
 @Slf4j
 public class InvoiceService {
 
+    @Value("${app.invoice.reminder-stream.page-size:500}")
+    private int reminderStreamPageSize;
+
     private final InvoiceRepository invoiceRepository;
     private final CompanyRepository companyRepository;
     private final CustomerRepository customerRepository;
     private final InvoiceFileStorageUtil fileStorageUtil;
+    private final StoredFileRepository storedFileRepository;
+    private final ExtractionCacheService extractionCacheService;
     private final InvoiceFileTypeValidator fileTypeValidator;
-    private final InvoiceExtractionService extractionService;
+    private final ExtractionJobService extractionJobService;
     private final ObjectMapper objectMapper;
+    private final ReceivablesSummaryService receivablesSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final EntityManager entityManager;
 
     /**
      * Upload invoice file and create DRAFT invoice
+     * Files are deduplicated per company by content hash: a file uploaded before is not written again,
+     * and if its extraction result is cached (ExtractionCacheService), the new invoice gets a copy of it
+     * instead of a new extraction job
      *
      * @param file Uploaded file
      * @param companyId Company ID
@@ -79,28 +110,45 @@ public class InvoiceService {
             }
         }
 
-        // Store file
-        String filePath = fileStorageUtil.storeFile(file, companyId);
+        // Stream file to staging while hashing it; content the company uploaded before is not stored again
+        InvoiceFileStorageUtil.StagedFile staged = fileStorageUtil.stageFile(file);
+        String contentHash = staged.contentHash();
+        Optional<StoredFile> storedFile;
+        String filePath;
+        try {
+            storedFile = storedFileRepository.findByCompanyIdAndContentHash(companyId, contentHash);
+            filePath = storedFile.isPresent()
+                    ? storedFile.get().getFilePath()
+                    : fileStorageUtil.commitFile(staged, companyId);
+            storedFileRepository.addReference(companyId, contentHash, filePath, staged.size(), LocalDateTime.now());
+        } finally {
+            fileStorageUtil.discardFile(staged);
+        }
+
+        // Content extracted before by the current extractor version needs no Python call
+        JsonNode cachedExtraction = extractionCacheService.lookup(storedFile.orElse(null));
 
         // Create DRAFT invoice
         Invoice invoice = new Invoice();
         invoice.setCompany(company);
         invoice.setCustomer(customer);
         invoice.setFilePath(filePath);
+        invoice.setContentHash(contentHash);
+        invoice.setExtractedData(cachedExtraction);
         invoice.setStatus(InvoiceStatus.DRAFT);
 
         // Save invoice
         Invoice savedInvoice = invoiceRepository.save(invoice);
 
         log.info("DRAFT invoice created with ID: {} for file: {}", savedInvoice.getId(), filePath);
-
-        // Trigger async extraction (fire-and-forget)
-        try {
-            extractionService.triggerExtraction(savedInvoice.getId(), filePath);
-            log.debug("Triggered async extraction for invoice ID: {}", savedInvoice.getId());
-        } catch (Exception e) {
-            // Log but don't fail the upload - extraction is async
-            log.warn("Failed to trigger extraction for invoice ID: {}, will retry later", savedInvoice.getId(), e);
+        eventPublisher.publishEvent(new InvoiceChangedEvent(
+                savedInvoice.getId(), companyId, null, InvoiceStatus.DRAFT));
+
+        if (cachedExtraction != null) {
+            log.info("Invoice ID: {} filled from cached extraction result", savedInvoice.getId());
+        } else {
+            // Queue extraction in the same transaction; ExtractionJobWorker sends it to the Python service
+            extractionJobService.enqueue(savedInvoice.getId(), filePath);
         }
 
         return savedInvoice.getId();
@@ -151,6 +199,8 @@ public class InvoiceService {
         Invoice savedInvoice = invoiceRepository.save(invoice);
 
         log.info("DRAFT invoice created manually with ID: {} for company: {}", savedInvoice.getId(), companyId);
+        eventPublisher.publishEvent(new InvoiceChangedEvent(
+                savedInvoice.getId(), companyId, null, InvoiceStatus.DRAFT));
 
         return savedInvoice.getId();
     }
@@ -165,14 +215,50 @@ public class InvoiceService {
     public List<InvoiceReminderDto> findAllPendingInvoicesForReminders() {
         log.debug("Finding all pending invoices for reminders");
         
-        List<Invoice> pendingInvoices = invoiceRepository
-                .findAllByStatusWithCustomerAndCompany(InvoiceStatus.PENDING);
+        List<InvoiceReminderDto> pendingInvoices = invoiceRepository
+                .findReminderDtosByStatus(InvoiceStatus.PENDING);
         
         log.info("Found {} pending invoices for reminders", pendingInvoices.size());
         
-        return pendingInvoices.stream()
-                .map(this::mapToReminderDto)
-                .collect(Collectors.toList());
+        return pendingInvoices;
+    }
+
+    /**
+     * Stream all invoices with PENDING status to a consumer, one reminder DTO at a time
+     * Reads keyset pages of DTO projections, each in its own short query, so no transaction or
+     * pooled connection is held while the consumer waits on a slow client, and memory stays
+     * constant regardless of the number of invoices
+     * Pages are separate snapshots: an invoice that changes status mid-stream may be skipped or
+     * included, which a reminder poll tolerates
+     * Invoices without a due date are not streamed; no reminder is ever scheduled for them
+     * Must not be called inside a transaction, which would hold the connection for the whole stream
+     *
+     * @param consumer Receives each InvoiceReminderDto in due-date order
+     * @return Number of invoices streamed
+     */
+    public long streamPendingInvoicesForReminders(Consumer<InvoiceReminderDto> consumer) {
+        log.debug("Streaming all pending invoices for reminders");
+
+        Pageable page = PageRequest.ofSize(reminderStreamPageSize);
+        long count = 0;
+        List<InvoiceReminderDto> invoices = invoiceRepository
+                .findFirstReminderDtoPageByStatus(InvoiceStatus.PENDING, page);
+        while (!invoices.isEmpty()) {
+            for (InvoiceReminderDto invoice : invoices) {
+                consumer.accept(invoice);
+                count++;
+            }
+            if (invoices.size() < reminderStreamPageSize) {
+                break;
+            }
+            InvoiceReminderDto last = invoices.get(invoices.size() - 1);
+            invoices = invoiceRepository.findReminderDtoPageByStatusAfter(
+                    InvoiceStatus.PENDING, last.getDueDate(), last.getId(), page);
+        }
+
+        log.info("Streamed {} pending invoices for reminders", count);
+
+        return count;
     }
 
     /**
@@ -186,14 +272,12 @@ public class InvoiceService {
     public List<InvoiceReminderDto> findAllPendingInvoicesForRemindersByCompany(Long companyId) {
         log.debug("Finding pending invoices for company ID: {}", companyId);
         
-        List<Invoice> pendingInvoices = invoiceRepository
-                .findAllByCompanyIdAndStatusWithCustomerAndCompany(companyId, InvoiceStatus.PENDING);
+        List<InvoiceReminderDto> pendingInvoices = invoiceRepository
+                .findReminderDtosByCompanyIdAndStatus(companyId, InvoiceStatus.PENDING);
         
         log.info("Found {} pending invoices for company ID: {}", pendingInvoices.size(), companyId);
         
-        return pendingInvoices.stream()
-                .map(this::mapToReminderDto)
-                .collect(Collectors.toList());
+        return pendingInvoices;
     }
 
     /**
@@ -244,6 +328,122 @@ public class InvoiceService {
         return updatedInvoice;
     }
 
+    /**
+     * Store extracted invoice data for a chunk of a batch in one transaction
+     * All target invoices are loaded with one IN query and the jsonb updates are flushed together,
+     * which Hibernate sends as JDBC batches; the invoices are then detached, so memory stays flat
+     * across chunks. Items for unknown or non-DRAFT invoices, and for invoices of other companies,
+     * are reported as not found or rejected, not stored
+     *
+     * @param companyId Company of the caller; invoices of other companies are reported as not found
+     * @param items Chunk of extracted-data items; null entries are malformed items
+     * @param firstIndex Position of the first item in the whole batch
+     * @return One result per item, in order
+     */
+    @Transactional
+    public List<ExtractedDataBatchItemResult> storeExtractedDataBatch(Long companyId,
+                                                                      List<ExtractedInvoiceDataBatchItem> items,
+                                                                      int firstIndex) {
+        return storeBatch(companyId, items, firstIndex, false);
+    }
+
+    /**
+     * Store the extracted data returned for a batch of extraction jobs in one transaction
+     * The invoice IDs come from the job queue rather than from a caller, so invoices of any company
+     * are stored. Being extractor output, the results also fill the extraction cache
+     *
+     * @param items Extraction results, one per invoice
+     * @return One result per item, in order
+     */
+    @Transactional
+    public List<ExtractedDataBatchItemResult> storeExtractionResults(List<ExtractedInvoiceDataBatchItem> items) {
+        return storeBatch(null, items, 0, true);
+    }
+
+    /**
+     * Store a chunk of extracted data; see storeExtractedDataBatch
+     *
+     * @param companyId Company the invoices must belong to, or null for any company
+     * @param cacheResults Whether to cache the stored data (extractor output only)
+     */
+    private List<ExtractedDataBatchItemResult> storeBatch(Long companyId, List<ExtractedInvoiceDataBatchItem> items,
+                                                          int firstIndex, boolean cacheResults) {
+        log.debug("Storing batch of {} extracted data items starting at index {}", items.size(), firstIndex);
+
+        Set<Long> invoiceIds = items.stream()
+                .filter(Objects::nonNull)
+                .map(ExtractedInvoiceDataBatchItem::getInvoiceId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        // Invoices of other companies are left out, so they read as not found and their existence is not revealed
+        Map<Long, Invoice> invoices = invoiceIds.isEmpty()
+                ? Map.of()
+                : invoiceRepository.findAllById(invoiceIds).stream()
+                        .filter(invoice -> companyId == null || companyId.equals(invoice.getCompany().getId()))
+                        .collect(Collectors.toMap(Invoice::getId, Function.identity()));
+
+        List<ExtractedDataBatchItemResult> results = new ArrayList<>(items.size());
+        List<Invoice> updated = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            ExtractedInvoiceDataBatchItem item = items.get(i);
+            ExtractedDataBatchItemResult result = ExtractedDataBatchItemResult.builder()
+                    .index(firstIndex + i)
+                    .invoiceId(item != null ? item.getInvoiceId() : null)
+                    .stored(false)
+                    .build();
+            results.add(result);
+
+            String error = validate(item, invoices);
+            if (error != null) {
+                result.setError(error);
+                continue;
+            }
+
+            // Dirty checking turns this into an UPDATE at flush
+            Invoice invoice = invoices.get(item.getInvoiceId());
+            invoice.setExtractedData(objectMapper.valueToTree(item.getExtractedData()));
+            updated.add(invoice);
+            result.setStored(true);
+        }
+        if (cacheResults) {
+            extractionCacheService.storeAll(updated);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        long stored = results.stream().filter(ExtractedDataBatchItemResult::getStored).count();
+        log.info("Stored extracted data for {} of {} invoices in batch starting at index {}",
+                stored, items.size(), firstIndex);
+
+        return results;
+    }
+
+    /**
+     * Check an extracted-data batch item before storing it
+     *
+     * @return Error message, or null if the item can be stored
+     */
+    private String validate(ExtractedInvoiceDataBatchItem item, Map<Long, Invoice> invoices) {
+        if (item == null) {
+            return "Malformed extracted data item";
+        }
+        Set<ConstraintViolation<ExtractedInvoiceDataBatchItem>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        Invoice invoice = invoices.get(item.getInvoiceId());
+        if (invoice == null) {
+            return "Invoice not found with ID: " + item.getInvoiceId();
+        }
+        if (invoice.getStatus() != InvoiceStatus.DRAFT) {
+            return "Can only store extracted data for DRAFT invoices. Current status: " + invoice.getStatus();
+        }
+        return null;
+    }
+
     /**
      * Confirm a DRAFT invoice and activate it
      * Moves invoice from DRAFT to PENDING status (ACTIVE in business terms)
@@ -303,6 +503,10 @@ public class InvoiceService {
 
         // Save invoice
         Invoice confirmedInvoice = invoiceRepository.save(invoice);
+        receivablesSummaryService.recordStatusChange(invoice.getCompany().getId(),
+                InvoiceStatus.DRAFT, InvoiceStatus.PENDING, invoice.getAmount(), invoice.getDueDate());
+        eventPublisher.publishEvent(new InvoiceChangedEvent(
+                invoiceId, invoice.getCompany().getId(), InvoiceStatus.DRAFT, InvoiceStatus.PENDING));
 
         log.info("Successfully confirmed invoice ID: {}. Status changed from DRAFT to PENDING. " +
                 "Invoice is now eligible for reminders.", invoiceId);
@@ -327,25 +531,5 @@ public class InvoiceService {
         
         return draftInvoices;
     }
-
-    /**
-     * Maps Invoice entity to InvoiceReminderDto
-     * Extracts only the fields needed for reminders
-     *
-     * @param invoice Invoice entity
-     * @return InvoiceReminderDto with minimal reminder data
-     */
-    private InvoiceReminderDto mapToReminderDto(Invoice invoice) {
-        return InvoiceReminderDto.builder()
-                .id(invoice.getId())
-                .invoiceNumber(invoice.getInvoiceNumber())
-                .dueDate(invoice.getDueDate())
-                .amount(invoice.getAmount())
-                .companyId(invoice.getCompany().getId())
-                .customerName(invoice.getCustomer() != null ? invoice.getCustomer().getCustomerName() : null)
-                .customerEmail(invoice.getCustomer() != null ? invoice.getCustomer().getEmail() : null)
-                .customerPhone(invoice.getCustomer() != null ? invoice.getCustomer().getPhone() : null)
-                .build();
-    }
 }
 
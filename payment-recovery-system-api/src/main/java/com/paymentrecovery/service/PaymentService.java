@@ -1,5 +1,6 @@
 package com.paymentrecovery.service;
 
+import com.paymentrecovery.event.InvoiceChangedEvent;
 import com.paymentrecovery.model.dto.request.MarkInvoicePaidRequest;
 import com.paymentrecovery.model.entity.Invoice;
 import com.paymentrecovery.model.entity.Payment;
@@ -8,6 +9,7 @@ import com.paymentrecovery.repository.InvoiceRepository;
 import com.paymentrecovery.repository.PaymentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +24,8 @@ public class PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final InvoiceRepository invoiceRepository;
+    private final ReceivablesSummaryService receivablesSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Mark an invoice as paid by creating a payment record and updating invoice status
@@ -55,8 +59,13 @@ public class PaymentService {
         log.debug("Created payment with ID: {} for invoice ID: {}", savedPayment.getId(), invoiceId);
 
         // Update invoice status to PAID
+        InvoiceStatus previousStatus = invoice.getStatus();
         invoice.setStatus(InvoiceStatus.PAID);
         Invoice updatedInvoice = invoiceRepository.save(invoice);
+        receivablesSummaryService.recordStatusChange(invoice.getCompany().getId(),
+                previousStatus, InvoiceStatus.PAID, invoice.getAmount(), invoice.getDueDate());
+        eventPublisher.publishEvent(new InvoiceChangedEvent(
+                invoiceId, invoice.getCompany().getId(), previousStatus, InvoiceStatus.PAID));
 
         log.info("Successfully marked invoice ID: {} as PAID. Payment ID: {}", 
                 invoiceId, savedPayment.getId());
@@ -0,0 +1,163 @@
+package com.paymentrecovery.service;
+
+import com.paymentrecovery.model.dto.response.DashboardMetricsDto;
+import com.paymentrecovery.model.entity.CompanyReceivablesSummary;
+import com.paymentrecovery.model.enums.InvoiceStatus;
+import com.paymentrecovery.repository.CompanyReceivablesSummaryRepository;
+import com.paymentrecovery.repository.InvoiceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Service for company receivables summaries
+ * Keeps the per-company dashboard totals in step with invoice status transitions
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReceivablesSummaryService {
+
+    private final CompanyReceivablesSummaryRepository summaryRepository;
+    private final InvoiceRepository invoiceRepository;
+
+    /**
+     * Apply an invoice status transition to the company summary
+     * Must run in the transaction that changes the invoice, so both commit or roll back together
+     *
+     * @param companyId Company ID
+     * @param previousStatus Status before the transition, null for a new invoice
+     * @param newStatus Status after the transition
+     * @param amount Invoice amount, may be null for drafts
+     * @param dueDate Invoice due date, may be null for drafts
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(Long companyId, InvoiceStatus previousStatus, InvoiceStatus newStatus,
+                                   BigDecimal amount, LocalDate dueDate) {
+        long pendingDelta = countOf(newStatus, InvoiceStatus.PENDING) - countOf(previousStatus, InvoiceStatus.PENDING);
+        long paidDelta = countOf(newStatus, InvoiceStatus.PAID) - countOf(previousStatus, InvoiceStatus.PAID);
+        if (pendingDelta == 0 && paidDelta == 0) {
+            return;
+        }
+
+        BigDecimal invoiceAmount = amount != null ? amount : BigDecimal.ZERO;
+        BigDecimal pendingAmountDelta = invoiceAmount.multiply(BigDecimal.valueOf(pendingDelta));
+        BigDecimal recoveredAmountDelta = paidDelta > 0 ? invoiceAmount : BigDecimal.ZERO;
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+
+        summaryRepository.insertIfAbsent(companyId);
+        summaryRepository.applyDelta(companyId, pendingDelta, pendingAmountDelta, paidDelta,
+                recoveredAmountDelta, dueDate, currentMonth, LocalDateTime.now());
+
+        log.debug("Applied {} -> {} to receivables summary for company ID: {}",
+                previousStatus, newStatus, companyId);
+    }
+
+    /**
+     * Get the summary for a company, rebuilding it from invoices if it is missing or out of date
+     *
+     * @param companyId Company ID
+     * @return Current summary row
+     */
+    @Transactional
+    public CompanyReceivablesSummary getSummary(Long companyId) {
+        LocalDate today = LocalDate.now();
+        CompanyReceivablesSummary summary = summaryRepository.findById(companyId).orElse(null);
+        if (summary != null && isCurrent(summary, today)) {
+            return summary;
+        }
+        if (summary == null) {
+            summaryRepository.insertIfAbsent(companyId);
+        }
+        CompanyReceivablesSummary locked = lockSummary(companyId);
+        recompute(locked, today);
+        log.debug("Rebuilt receivables summary for company ID: {}", companyId);
+        return locked;
+    }
+
+    /**
+     * Recompute overdue figures of all summaries for the current date
+     *
+     * @return Number of summaries updated
+     */
+    @Transactional
+    public int refreshOverdue() {
+        int updated = summaryRepository.refreshOverdue(LocalDate.now(), LocalDateTime.now());
+        log.info("Refreshed overdue figures for {} receivables summaries", updated);
+        return updated;
+    }
+
+    /**
+     * Compare a company summary with the invoices table and repair any drift
+     * The summary row stays locked while invoices are aggregated, so no transition can interleave
+     *
+     * @param companyId Company ID
+     * @return True if the summary had drifted and was repaired
+     */
+    @Transactional
+    public boolean reconcile(Long companyId) {
+        CompanyReceivablesSummary summary = summaryRepository.findByIdForUpdate(companyId).orElse(null);
+        if (summary == null) {
+            return false;
+        }
+        long pendingInvoices = summary.getPendingInvoices();
+        BigDecimal pendingAmount = summary.getPendingAmount();
+        long paidInvoices = summary.getPaidInvoices();
+        boolean wasComputed = summary.getOverdueAsOf() != null;
+
+        recompute(summary, LocalDate.now());
+
+        boolean drifted = wasComputed && (pendingInvoices != summary.getPendingInvoices()
+                || paidInvoices != summary.getPaidInvoices()
+                || pendingAmount.compareTo(summary.getPendingAmount()) != 0);
+        if (drifted) {
+            log.warn("Repaired receivables summary drift for company ID: {} - pending {} -> {}, " +
+                            "pending amount {} -> {}, paid {} -> {}",
+                    companyId, pendingInvoices, summary.getPendingInvoices(), pendingAmount,
+                    summary.getPendingAmount(), paidInvoices, summary.getPaidInvoices());
+        }
+        return drifted;
+    }
+
+    private CompanyReceivablesSummary lockSummary(Long companyId) {
+        return summaryRepository.findByIdForUpdate(companyId)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Receivables summary missing for company ID: " + companyId));
+    }
+
+    /**
+     * Overwrite all figures of a locked summary row with totals aggregated from invoices
+     */
+    private void recompute(CompanyReceivablesSummary summary, LocalDate today) {
+        LocalDateTime startOfMonth = today.withDayOfMonth(1).atStartOfDay();
+        DashboardMetricsDto totals = invoiceRepository.getDashboardMetricsByCompany(
+                summary.getCompanyId(), InvoiceStatus.PENDING, InvoiceStatus.PAID,
+                today, startOfMonth, startOfMonth.plusMonths(1));
+
+        summary.setPendingInvoices(totals.getPendingInvoices());
+        summary.setPendingAmount(totals.getPendingAmount());
+        summary.setPaidInvoices(totals.getPaidInvoices());
+        summary.setOverdueInvoices(totals.getOverdueInvoices());
+        summary.setOverdueAmount(totals.getOverdueAmount());
+        summary.setOverdueAsOf(today);
+        summary.setMoneyRecoveredThisMonth(totals.getMoneyRecoveredThisMonth());
+        summary.setRecoveredMonth(today.withDayOfMonth(1));
+        summary.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private static boolean isCurrent(CompanyReceivablesSummary summary, LocalDate today) {
+        return today.equals(summary.getOverdueAsOf())
+                && Objects.equals(today.withDayOfMonth(1), summary.getRecoveredMonth());
+    }
+
+    private static long countOf(InvoiceStatus status, InvoiceStatus counted) {
+        return status == counted ? 1 : 0;
+    }
+}
@@ -0,0 +1,160 @@
+package com.paymentrecovery.service;
+
+import com.paymentrecovery.model.entity.RefreshToken;
+import com.paymentrecovery.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Refresh token service
+ * Issues opaque refresh tokens and rotates them on every use
+ *
+ * Tokens are 256-bit random values; only their SHA-256 hash is stored, so a database leak does not
+ * expose usable tokens. Each rotation marks the presented token used and issues a new one in the
+ * same family. A used or revoked token presented again means the token was copied, so the whole
+ * family is revoked and the user has to log in again. A token rotated moments ago is only rejected:
+ * clients that send parallel refreshes with the same token (several tabs, a retry) would otherwise
+ * log themselves out.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${spring.security.jwt.refresh-expiration:604800000}")
+    private long refreshExpiration; // Default 7 days in milliseconds
+
+    @Value("${app.security.refresh-token.reuse-grace-seconds:10}")
+    private long reuseGraceSeconds;
+
+    /**
+     * Issued refresh token: the value handed to the client and the user it belongs to
+     *
+     * @param token Refresh token value
+     * @param userId User ID
+     */
+    public record IssuedToken(String token, Long userId) {
+    }
+
+    /**
+     * Issue a refresh token starting a new family, after a password login
+     *
+     * @param userId User ID
+     * @return Refresh token value
+     */
+    @Transactional
+    public String issue(Long userId) {
+        return issue(userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Rotate a refresh token
+     * Marks the presented token used and issues its successor in the same family
+     * A used token presented again within the reuse grace window is rejected without revoking the family
+     *
+     * @param token Refresh token value presented by the client
+     * @return New refresh token and the user it belongs to
+     * @throws RuntimeException if the token is unknown, expired, revoked or already used
+     */
+    @Transactional(noRollbackFor = RuntimeException.class)
+    public IssuedToken rotate(String token) {
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(hashToken(token))
+                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (refreshToken.getUsedAt() != null || refreshToken.getRevokedAt() != null
+                || refreshToken.getExpiresAt().isBefore(now)) {
+            if (refreshToken.getUsedAt() != null && refreshToken.getRevokedAt() == null
+                    && refreshToken.getUsedAt().plusSeconds(reuseGraceSeconds).isBefore(now)) {
+                revokeReusedFamily(refreshToken, now);
+            }
+            throw new RuntimeException("Invalid refresh token");
+        }
+
+        // Conditional update: of two concurrent refreshes with the same token only one wins
+        // The loser raced a rotation that happened just now, inside the grace window, so the family stays valid
+        if (refreshTokenRepository.markUsed(refreshToken.getId(), now) == 0) {
+            log.info("Refresh token for user ID: {} was rotated by a concurrent request", refreshToken.getUserId());
+            throw new RuntimeException("Invalid refresh token");
+        }
+
+        String next = issue(refreshToken.getUserId(), refreshToken.getFamilyId());
+        return new IssuedToken(next, refreshToken.getUserId());
+    }
+
+    /**
+     * Revoke the family of a refresh token, e.g. on logout
+     *
+     * @param token Refresh token value
+     */
+    @Transactional
+    public void revoke(String token) {
+        refreshTokenRepository.findByTokenHash(hashToken(token))
+                .ifPresent(refreshToken -> {
+                    refreshTokenRepository.revokeFamily(refreshToken.getFamilyId(), LocalDateTime.now());
+                    log.info("Revoked refresh tokens for user ID: {}", refreshToken.getUserId());
+                });
+    }
+
+    /**
+     * Delete expired refresh tokens
+     *
+     * @return Number of tokens deleted
+     */
+    @Transactional
+    public int purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        log.info("Purged {} expired refresh tokens", deleted);
+        return deleted;
+    }
+
+    private String issue(Long userId, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUserId(userId);
+        refreshToken.setTokenHash(hashToken(token));
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setExpiresAt(LocalDateTime.now().plusNanos(refreshExpiration * 1_000_000L));
+        refreshTokenRepository.save(refreshToken);
+
+        return token;
+    }
+
+    private void revokeReusedFamily(RefreshToken refreshToken, LocalDateTime now) {
+        int revoked = refreshTokenRepository.revokeFamily(refreshToken.getFamilyId(), now);
+        log.warn("Refresh token reuse detected for user ID: {}, revoked {} tokens in family {}",
+                refreshToken.getUserId(), revoked, refreshToken.getFamilyId());
+    }
+
+    /**
+     * Hex SHA-256 of the token value
+     */
+    private String hashToken(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
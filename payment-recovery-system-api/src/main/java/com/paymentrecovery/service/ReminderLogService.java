@@ -1,15 +1,29 @@
 package com.paymentrecovery.service;
 
+import com.paymentrecovery.event.ReminderLoggedEvent;
 import com.paymentrecovery.model.dto.request.CreateReminderLogRequest;
+import com.paymentrecovery.model.dto.response.ReminderLogBatchItemResult;
 import com.paymentrecovery.model.dto.response.ReminderLogResponse;
 import com.paymentrecovery.model.entity.ReminderLog;
+import com.paymentrecovery.repository.InvoiceRepository;
 import com.paymentrecovery.repository.ReminderLogRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Service for ReminderLog business logic
@@ -21,6 +35,13 @@ import java.time.LocalDateTime;
 public class ReminderLogService {
 
     private final ReminderLogRepository reminderLogRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final Validator validator;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:20}")
+    private int jdbcBatchSize;
 
     /**
      * Create a new reminder log entry
@@ -40,6 +61,8 @@ public class ReminderLogService {
         reminderLog.setSentDate(LocalDateTime.now());
 
         ReminderLog savedReminderLog = reminderLogRepository.save(reminderLog);
+        eventPublisher.publishEvent(new ReminderLoggedEvent(
+                savedReminderLog.getInvoiceId(), savedReminderLog.getReminderType()));
 
         log.info("Successfully created reminder log with ID: {} for invoice ID: {}", 
                 savedReminderLog.getId(), request.getInvoiceId());
@@ -47,6 +70,113 @@ public class ReminderLogService {
         return mapToResponse(savedReminderLog);
     }
 
+    /**
+     * Create reminder log entries for a chunk of a batch in one transaction
+     * Valid items are persisted and flushed every JDBC batch size, then the persistence context
+     * is cleared, so memory stays flat across large chunks. Invalid items are reported, not saved
+     *
+     * @param requests Chunk of reminder log requests; null entries are lines that could not be parsed
+     * @param firstIndex Position of the first request in the whole batch
+     * @return One result per request, in order
+     */
+    @Transactional
+    public List<ReminderLogBatchItemResult> createReminderLogs(List<CreateReminderLogRequest> requests, int firstIndex) {
+        log.debug("Creating batch of {} reminder logs starting at index {}", requests.size(), firstIndex);
+
+        Set<Long> invoiceIds = requests.stream()
+                .filter(Objects::nonNull)
+                .map(CreateReminderLogRequest::getInvoiceId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existingInvoiceIds = invoiceIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(invoiceRepository.findExistingIds(invoiceIds));
+
+        LocalDateTime sentDate = LocalDateTime.now();
+        List<ReminderLogBatchItemResult> results = new ArrayList<>(requests.size());
+        List<ReminderLog> pending = new ArrayList<>(jdbcBatchSize);
+        List<ReminderLogBatchItemResult> pendingResults = new ArrayList<>(jdbcBatchSize);
+
+        for (int i = 0; i < requests.size(); i++) {
+            CreateReminderLogRequest request = requests.get(i);
+            ReminderLogBatchItemResult result = ReminderLogBatchItemResult.builder()
+                    .index(firstIndex + i)
+                    .invoiceId(request != null ? request.getInvoiceId() : null)
+                    .created(false)
+                    .build();
+            results.add(result);
+
+            String error = validate(request, existingInvoiceIds);
+            if (error != null) {
+                result.setError(error);
+                continue;
+            }
+
+            ReminderLog reminderLog = new ReminderLog();
+            reminderLog.setInvoiceId(request.getInvoiceId());
+            reminderLog.setReminderType(request.getReminderType());
+            reminderLog.setChannel(request.getChannel());
+            reminderLog.setSentDate(sentDate);
+            entityManager.persist(reminderLog);
+            pending.add(reminderLog);
+            pendingResults.add(result);
+
+            if (pending.size() == jdbcBatchSize) {
+                flushBatch(pending, pendingResults);
+            }
+        }
+        flushBatch(pending, pendingResults);
+
+        long created = results.stream().filter(ReminderLogBatchItemResult::getCreated).count();
+        log.info("Created {} of {} reminder logs in batch starting at index {}",
+                created, requests.size(), firstIndex);
+
+        return results;
+    }
+
+    /**
+     * Check a batch item before persisting it
+     *
+     * @return Error message, or null if the item is valid
+     */
+    private String validate(CreateReminderLogRequest request, Set<Long> existingInvoiceIds) {
+        if (request == null) {
+            return "Malformed reminder log entry";
+        }
+        Set<ConstraintViolation<CreateReminderLogRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (!existingInvoiceIds.contains(request.getInvoiceId())) {
+            return "Invoice not found with ID: " + request.getInvoiceId();
+        }
+        return null;
+    }
+
+    /**
+     * Flush persisted reminder logs as one JDBC batch and detach them
+     */
+    private void flushBatch(List<ReminderLog> pending, List<ReminderLogBatchItemResult> pendingResults) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        for (int i = 0; i < pending.size(); i++) {
+            ReminderLog reminderLog = pending.get(i);
+            ReminderLogBatchItemResult result = pendingResults.get(i);
+            result.setCreated(true);
+            result.setReminderLogId(reminderLog.getId());
+            eventPublisher.publishEvent(new ReminderLoggedEvent(
+                    reminderLog.getInvoiceId(), reminderLog.getReminderType()));
+        }
+        entityManager.clear();
+        pending.clear();
+        pendingResults.clear();
+    }
+
     /**
      * Maps ReminderLog entity to ReminderLogResponse DTO
      *
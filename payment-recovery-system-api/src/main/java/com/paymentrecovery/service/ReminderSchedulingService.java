@@ -0,0 +1,307 @@
+package com.paymentrecovery.service;
+
+import com.paymentrecovery.event.InvoiceChangedEvent;
+import com.paymentrecovery.event.ReminderLoggedEvent;
+import com.paymentrecovery.model.dto.response.DueReminderDto;
+import com.paymentrecovery.model.dto.response.InvoiceReminderDto;
+import com.paymentrecovery.model.entity.ReminderLog;
+import com.paymentrecovery.model.enums.InvoiceStatus;
+import com.paymentrecovery.model.enums.ReminderType;
+import com.paymentrecovery.repository.InvoiceRepository;
+import com.paymentrecovery.repository.ReminderLogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * In-process reminder scheduler
+ * Keeps every PENDING invoice in a priority queue keyed on its next reminder date,
+ * so finding the reminders due today only touches the invoices that are actually due
+ *
+ * The next reminder type follows the due date and the last logged reminder:
+ * GENTLE at T-5, DUE at T, FIRM at T+7, ESCALATION at T+15. A reminder stays due until it
+ * (or a later type) is logged, then the invoice is re-queued for the following type.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReminderSchedulingService {
+
+    private static final Comparator<ScheduledReminder> REMINDER_ORDER = Comparator
+            .comparing(ScheduledReminder::reminderDate)
+            .thenComparing(reminder -> reminder.invoice().getDueDate())
+            .thenComparing(reminder -> reminder.invoice().getId());
+
+    private final InvoiceRepository invoiceRepository;
+    private final ReminderLogRepository reminderLogRepository;
+
+    /**
+     * Queued reminders; entries replaced in {@link #scheduled} are left in place and skipped when polled
+     */
+    private PriorityQueue<ScheduledReminder> queue = new PriorityQueue<>(REMINDER_ORDER);
+
+    /**
+     * Current queued reminder per invoice ID
+     */
+    private Map<Long, ScheduledReminder> scheduled = new HashMap<>();
+
+    /**
+     * Reminders whose date has been reached and that have not been logged yet, in queue order
+     */
+    private Map<Long, ScheduledReminder> due = new LinkedHashMap<>();
+
+    /**
+     * Invoices changed while a rebuild is reading the database; null when no rebuild is running
+     */
+    private Set<Long> changedDuringRebuild;
+
+    /**
+     * Rebuild the schedule from the PENDING invoices and their reminder logs
+     * Invoices are streamed in due-date order, so the heap is filled from an almost sorted sequence
+     * The current schedule keeps taking events meanwhile. Invoices changed during the rebuild are
+     * re-read into the new schedule before it is swapped in, so no change is lost to the swap
+     *
+     * @param today Current date
+     * @return Number of invoices with a reminder still to send
+     */
+    @Transactional(readOnly = true)
+    public int rebuild(LocalDate today) {
+        synchronized (this) {
+            changedDuringRebuild = new HashSet<>();
+        }
+        try {
+            return rebuildSchedule(today);
+        } finally {
+            synchronized (this) {
+                changedDuringRebuild = null;
+            }
+        }
+    }
+
+    private int rebuildSchedule(LocalDate today) {
+        Map<Long, ReminderType> lastSent = new HashMap<>();
+        for (ReminderLog reminderLog : reminderLogRepository.findLatestByInvoiceStatus(InvoiceStatus.PENDING)) {
+            // Logs sharing the latest sent date: keep the furthest escalation
+            lastSent.merge(reminderLog.getInvoiceId(), reminderLog.getReminderType(),
+                    (a, b) -> a.compareTo(b) >= 0 ? a : b);
+        }
+
+        PriorityQueue<ScheduledReminder> newQueue = new PriorityQueue<>(REMINDER_ORDER);
+        Map<Long, ScheduledReminder> newScheduled = new HashMap<>();
+        try (Stream<InvoiceReminderDto> pendingInvoices = invoiceRepository
+                .streamReminderDtosByStatus(InvoiceStatus.PENDING)) {
+            Iterator<InvoiceReminderDto> iterator = pendingInvoices.iterator();
+            while (iterator.hasNext()) {
+                InvoiceReminderDto invoice = iterator.next();
+                ScheduledReminder reminder = nextReminder(invoice, lastSent.get(invoice.getId()), today);
+                if (reminder != null) {
+                    newQueue.add(reminder);
+                    newScheduled.put(invoice.getId(), reminder);
+                }
+            }
+        }
+
+        // Swap only once no change is left to re-read; changes arriving while re-reading go to the next round
+        while (true) {
+            Set<Long> changed;
+            synchronized (this) {
+                if (changedDuringRebuild.isEmpty()) {
+                    queue = newQueue;
+                    scheduled = newScheduled;
+                    due = new LinkedHashMap<>();
+                    break;
+                }
+                changed = changedDuringRebuild;
+                changedDuringRebuild = new HashSet<>();
+            }
+            for (Long invoiceId : changed) {
+                ScheduledReminder reminder = loadReminder(invoiceId, today);
+                newScheduled.remove(invoiceId);
+                if (reminder != null) {
+                    newQueue.add(reminder);
+                    newScheduled.put(invoiceId, reminder);
+                }
+            }
+        }
+
+        log.info("Rebuilt reminder schedule with {} invoices", newScheduled.size());
+
+        return newScheduled.size();
+    }
+
+    /**
+     * Get the reminders due on or before the given date
+     * Moves reminders whose date has been reached from the queue to the due set first
+     *
+     * @param today Current date
+     * @return Due reminders ordered by reminder date, then invoice due date
+     */
+    public synchronized List<DueReminderDto> getDueReminders(LocalDate today) {
+        ScheduledReminder head;
+        while ((head = queue.peek()) != null && !head.reminderDate().isAfter(today)) {
+            queue.poll();
+            Long invoiceId = head.invoice().getId();
+            if (scheduled.get(invoiceId) == head) {
+                scheduled.remove(invoiceId);
+                due.put(invoiceId, head);
+            }
+        }
+
+        List<DueReminderDto> dueReminders = new ArrayList<>(due.size());
+        for (ScheduledReminder reminder : due.values()) {
+            dueReminders.add(mapToDueReminderDto(reminder));
+        }
+        return dueReminders;
+    }
+
+    /**
+     * Advance an invoice to its next reminder once a reminder has been logged
+     * Logging an earlier type than the one scheduled leaves the schedule unchanged
+     *
+     * @param event Logged reminder
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onReminderLogged(ReminderLoggedEvent event) {
+        Long invoiceId = event.invoiceId();
+        markChanged(invoiceId);
+        ScheduledReminder current = due.containsKey(invoiceId) ? due.get(invoiceId) : scheduled.get(invoiceId);
+        if (current == null || event.reminderType().compareTo(current.reminderType()) < 0) {
+            return;
+        }
+
+        due.remove(invoiceId);
+        scheduled.remove(invoiceId);
+        schedule(nextReminder(current.invoice(), event.reminderType(), LocalDate.now()));
+
+        log.debug("Advanced reminder schedule for invoice ID: {} after {} reminder",
+                invoiceId, event.reminderType());
+    }
+
+    /**
+     * Add invoices that became PENDING and drop invoices that left PENDING
+     *
+     * @param event Invoice change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInvoiceChanged(InvoiceChangedEvent event) {
+        if (event.newStatus() == InvoiceStatus.PENDING) {
+            ScheduledReminder reminder = loadReminder(event.invoiceId(), LocalDate.now());
+            synchronized (this) {
+                markChanged(event.invoiceId());
+                remove(event.invoiceId());
+                schedule(reminder);
+            }
+        } else if (event.previousStatus() == InvoiceStatus.PENDING) {
+            synchronized (this) {
+                markChanged(event.invoiceId());
+                remove(event.invoiceId());
+            }
+        }
+    }
+
+    /**
+     * Read an invoice's next reminder from the database
+     *
+     * @param invoiceId Invoice ID
+     * @param today Current date
+     * @return Next reminder, or null if the invoice is not PENDING or has no reminder left to send
+     */
+    private ScheduledReminder loadReminder(Long invoiceId, LocalDate today) {
+        return invoiceRepository.findReminderDtoByIdAndStatus(invoiceId, InvoiceStatus.PENDING)
+                .map(invoice -> {
+                    ReminderType lastSent = reminderLogRepository
+                            .findFirstByInvoiceIdOrderBySentDateDesc(invoiceId)
+                            .map(ReminderLog::getReminderType)
+                            .orElse(null);
+                    return nextReminder(invoice, lastSent, today);
+                })
+                .orElse(null);
+    }
+
+    /**
+     * Work out the next reminder to send for an invoice
+     * After downtime or a late confirmation, reminders whose successor is already due are skipped,
+     * so an invoice past T+7 gets FIRM rather than a stale GENTLE
+     *
+     * @param invoice Invoice reminder data
+     * @param lastSent Last reminder type sent, or null if none
+     * @param today Current date
+     * @return Next reminder, or null if the invoice has no due date or all reminders were sent
+     */
+    private ScheduledReminder nextReminder(InvoiceReminderDto invoice, ReminderType lastSent, LocalDate today) {
+        if (invoice.getDueDate() == null) {
+            return null;
+        }
+        ReminderType type = lastSent == null ? ReminderType.values()[0] : lastSent.next();
+        if (type == null) {
+            return null;
+        }
+        ReminderType following;
+        while ((following = type.next()) != null
+                && !following.reminderDate(invoice.getDueDate()).isAfter(today)) {
+            type = following;
+        }
+        return new ScheduledReminder(invoice, type, type.reminderDate(invoice.getDueDate()));
+    }
+
+    private void schedule(ScheduledReminder reminder) {
+        if (reminder != null) {
+            queue.add(reminder);
+            scheduled.put(reminder.invoice().getId(), reminder);
+        }
+    }
+
+    /**
+     * Note a change for the rebuild in progress, if any; caller holds the lock
+     */
+    private void markChanged(Long invoiceId) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(invoiceId);
+        }
+    }
+
+    private void remove(Long invoiceId) {
+        // The queue entry becomes stale and is skipped when it reaches the head
+        scheduled.remove(invoiceId);
+        due.remove(invoiceId);
+    }
+
+    private DueReminderDto mapToDueReminderDto(ScheduledReminder reminder) {
+        InvoiceReminderDto invoice = reminder.invoice();
+        return DueReminderDto.builder()
+                .id(invoice.getId())
+                .invoiceNumber(invoice.getInvoiceNumber())
+                .dueDate(invoice.getDueDate())
+                .amount(invoice.getAmount())
+                .companyId(invoice.getCompanyId())
+                .customerName(invoice.getCustomerName())
+                .customerEmail(invoice.getCustomerEmail())
+                .customerPhone(invoice.getCustomerPhone())
+                .reminderType(reminder.reminderType())
+                .reminderDate(reminder.reminderDate())
+                .build();
+    }
+
+    /**
+     * Queue entry: the next reminder to send for an invoice and the date it becomes due
+     */
+    private record ScheduledReminder(InvoiceReminderDto invoice, ReminderType reminderType,
+                                     LocalDate reminderDate) {
+    }
+}
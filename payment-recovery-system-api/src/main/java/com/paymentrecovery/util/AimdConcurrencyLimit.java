@@ -0,0 +1,150 @@
+package com.paymentrecovery.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Adaptive concurrency limit using additive increase / multiplicative decrease
+ * The limit grows by about one per round of successful requests while it is actually in use, and
+ * shrinks by the backoff ratio when a request fails or the short-term average latency rises above
+ * the tolerated multiple of the long-term average. Concurrency thereby settles just below the point
+ * where the downstream service starts to queue.
+ *
+ * Comparing averages (a latency gradient) rather than single requests against the fastest one seen
+ * keeps the ordinary spread of request costs, e.g. a one-page versus a thirty-page invoice, from
+ * reading as congestion. Latency lowers the limit at most once per round of requests.
+ */
+@Slf4j
+public class AimdConcurrencyLimit {
+
+    /**
+     * Smoothing of the short-term average latency: roughly the last 10 requests
+     */
+    private static final double SHORT_SMOOTHING = 2.0 / (10 + 1);
+
+    /**
+     * Smoothing of the long-term average latency, the baseline: roughly the last 500 requests,
+     * so it follows a service that becomes slower or faster for good
+     */
+    private static final double LONG_SMOOTHING = 2.0 / (500 + 1);
+
+    /**
+     * Samples before latency is compared against the baseline
+     */
+    private static final int WARMUP_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+
+    private double limit;
+    private int inFlight;
+    private double shortLatencyNanos;
+    private double longLatencyNanos;
+    private long samples;
+    private int successesSinceDecrease;
+
+    /**
+     * @param initialLimit Starting limit
+     * @param minLimit Lowest limit
+     * @param maxLimit Highest limit
+     * @param backoffRatio Factor applied to the limit on congestion, e.g. 0.9
+     * @param latencyTolerance Short-term average latency above the long-term average times this factor
+     *                         counts as congestion, e.g. 2.0
+     */
+    public AimdConcurrencyLimit(int initialLimit, int minLimit, int maxLimit,
+                                double backoffRatio, double latencyTolerance) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Number of requests that may start now
+     */
+    public synchronized int available() {
+        return Math.max(0, (int) limit - inFlight);
+    }
+
+    /**
+     * Take a slot if one is free
+     *
+     * @return true if the request may start
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Release the slot of a request that succeeded
+     *
+     * @param latencyNanos Request latency
+     */
+    public synchronized void onSuccess(long latencyNanos) {
+        boolean saturated = inFlight * 2 >= (int) limit;
+        inFlight--;
+        recordLatency(latencyNanos);
+        successesSinceDecrease++;
+
+        boolean congested = samples >= WARMUP_SAMPLES && shortLatencyNanos > longLatencyNanos * latencyTolerance;
+        if (congested) {
+            // One decrease per round: the requests of that round were sent before the last decrease
+            if (successesSinceDecrease >= (int) limit) {
+                decrease("average latency " + (long) shortLatencyNanos / 1_000_000 + " ms, baseline "
+                        + (long) longLatencyNanos / 1_000_000 + " ms");
+            }
+        } else if (saturated) {
+            // Additive increase: about +1 per limit's worth of successes
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    /**
+     * Release the slot of a request that failed because the service was overloaded or unreachable
+     */
+    public synchronized void onDropped() {
+        inFlight--;
+        decrease("failed request");
+    }
+
+    /**
+     * Release a slot without adjusting the limit: the slot went unused, or the request's outcome
+     * says nothing about load (e.g. a rejected payload)
+     */
+    public synchronized void release() {
+        inFlight--;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private void decrease(String reason) {
+        double previous = limit;
+        limit = Math.max(minLimit, limit * backoffRatio);
+        successesSinceDecrease = 0;
+        if ((int) previous != (int) limit) {
+            log.debug("Concurrency limit lowered from {} to {} ({})", (int) previous, (int) limit, reason);
+        }
+    }
+
+    private void recordLatency(long latencyNanos) {
+        if (samples++ == 0) {
+            shortLatencyNanos = latencyNanos;
+            longLatencyNanos = latencyNanos;
+            return;
+        }
+        shortLatencyNanos += SHORT_SMOOTHING * (latencyNanos - shortLatencyNanos);
+        longLatencyNanos += LONG_SMOOTHING * (latencyNanos - longLatencyNanos);
+    }
+}
@@ -0,0 +1,95 @@
+package com.paymentrecovery.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+
+/**
+ * Consecutive-failure circuit breaker
+ * CLOSED lets calls through; after failureThreshold consecutive failures it turns OPEN and refuses
+ * calls for openDuration, then HALF_OPEN lets a single probe through: success closes the breaker,
+ * failure opens it again
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Number of calls that may start now, out of the wanted number
+     * While HALF_OPEN this is at most one; a probe that is granted but not used must be handed
+     * back with {@link #releaseProbe()}
+     *
+     * @param wanted Calls the caller would like to make
+     * @return Calls permitted
+     */
+    public synchronized int permittedCalls(int wanted) {
+        if (wanted <= 0) {
+            return 0;
+        }
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            log.info("Circuit breaker {} half-open, probing", name);
+        }
+        return switch (state) {
+            case CLOSED -> wanted;
+            case OPEN -> 0;
+            case HALF_OPEN -> {
+                if (probeInFlight) {
+                    yield 0;
+                }
+                probeInFlight = true;
+                yield 1;
+            }
+        };
+    }
+
+    /**
+     * Hand back a probe that was granted but not used
+     */
+    public synchronized void releaseProbe() {
+        probeInFlight = false;
+    }
+
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("Circuit breaker {} closed", name);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            probeInFlight = false;
+            log.warn("Circuit breaker {} opened after {} consecutive failures", name, consecutiveFailures);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
@@ -1,57 +1,103 @@
 package com.paymentrecovery.util;
 
 import com.paymentrecovery.model.enums.DocumentType;
+import com.paymentrecovery.util.FileSignatureDetector.FileFormat;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Utility class to detect document type from file
+ * The type declared by Content-Type or file name is only trusted when the file's first bytes agree
+ * with it; a mislabelled file is detected as OTHER and therefore not allowed
  */
 @Component
+@RequiredArgsConstructor
 public class DocumentTypeDetector {
 
+    private static final Map<String, DocumentType> MIME_TYPES = Map.of(
+            "application/pdf", DocumentType.PDF,
+            "application/msword", DocumentType.DOC,
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document", DocumentType.DOC,
+            "application/vnd.ms-excel", DocumentType.EXCEL,
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", DocumentType.EXCEL
+    );
+
+    private static final Map<String, DocumentType> EXTENSIONS = Map.ofEntries(
+            Map.entry("pdf", DocumentType.PDF),
+            Map.entry("jpg", DocumentType.IMAGE),
+            Map.entry("jpeg", DocumentType.IMAGE),
+            Map.entry("png", DocumentType.IMAGE),
+            Map.entry("gif", DocumentType.IMAGE),
+            Map.entry("bmp", DocumentType.IMAGE),
+            Map.entry("webp", DocumentType.IMAGE),
+            Map.entry("doc", DocumentType.DOC),
+            Map.entry("docx", DocumentType.DOC),
+            Map.entry("xls", DocumentType.EXCEL),
+            Map.entry("xlsx", DocumentType.EXCEL)
+    );
+
+    /**
+     * Formats a file of each document type may contain
+     * Legacy Office files are OLE2 and OOXML files are ZIP, whether Word or Excel
+     */
+    private static final Map<DocumentType, Set<FileFormat>> CONTENT_FORMATS = Map.of(
+            DocumentType.PDF, EnumSet.of(FileFormat.PDF),
+            DocumentType.IMAGE, EnumSet.of(FileFormat.PNG, FileFormat.JPEG, FileFormat.GIF,
+                    FileFormat.WEBP, FileFormat.BMP),
+            DocumentType.DOC, EnumSet.of(FileFormat.OLE2, FileFormat.ZIP),
+            DocumentType.EXCEL, EnumSet.of(FileFormat.OLE2, FileFormat.ZIP)
+    );
+
+    private final FileSignatureDetector fileSignatureDetector;
+
     /**
      * Detect document type from file
+     * Reads only the first bytes of the file
      *
      * @param file Multipart file
-     * @return DocumentType enum
+     * @return DocumentType enum; OTHER if the declared type is unknown or does not match the content
      */
     public DocumentType detectDocumentType(MultipartFile file) {
-        String contentType = file.getContentType();
-        String fileName = file.getOriginalFilename();
-        
-        if (contentType == null && fileName != null) {
-            return detectFromFileName(fileName);
-        }
-        
-        if (contentType == null) {
+        DocumentType declaredType = detectDeclaredType(file);
+        if (declaredType == DocumentType.OTHER) {
             return DocumentType.OTHER;
         }
-        
-        // Check by MIME type
-        if (contentType.equals("application/pdf")) {
-            return DocumentType.PDF;
-        }
-        
-        if (contentType.startsWith("image/")) {
-            return DocumentType.IMAGE;
-        }
-        
-        if (contentType.equals("application/msword") || 
-            contentType.equals("application/vnd.openxmlformats-officedocument.wordprocessingml.document")) {
-            return DocumentType.DOC;
-        }
-        
-        if (contentType.equals("application/vnd.ms-excel") ||
-            contentType.equals("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")) {
-            return DocumentType.EXCEL;
+
+        FileFormat format = fileSignatureDetector.detect(file);
+        return CONTENT_FORMATS.get(declaredType).contains(format) ? declaredType : DocumentType.OTHER;
+    }
+
+    /**
+     * Detect document type from Content-Type, falling back to the file name extension
+     *
+     * @param file Multipart file
+     * @return DocumentType enum
+     */
+    private DocumentType detectDeclaredType(MultipartFile file) {
+        String contentType = file.getContentType();
+        String fileName = file.getOriginalFilename();
+
+        if (contentType != null) {
+            String lowerContentType = contentType.toLowerCase();
+            if (lowerContentType.startsWith("image/")) {
+                return DocumentType.IMAGE;
+            }
+            DocumentType type = MIME_TYPES.get(lowerContentType);
+            if (type != null) {
+                return type;
+            }
         }
-        
+
         // Fallback to file name extension
         if (fileName != null) {
             return detectFromFileName(fileName);
         }
-        
+
         return DocumentType.OTHER;
     }
 
@@ -62,27 +108,11 @@ public class DocumentTypeDetector {
      * @return DocumentType enum
      */
     private DocumentType detectFromFileName(String fileName) {
-        String lowerFileName = fileName.toLowerCase();
-        
-        if (lowerFileName.endsWith(".pdf")) {
-            return DocumentType.PDF;
-        }
-        
-        if (lowerFileName.endsWith(".jpg") || lowerFileName.endsWith(".jpeg") ||
-            lowerFileName.endsWith(".png") || lowerFileName.endsWith(".gif") ||
-            lowerFileName.endsWith(".bmp") || lowerFileName.endsWith(".webp")) {
-            return DocumentType.IMAGE;
-        }
-        
-        if (lowerFileName.endsWith(".doc") || lowerFileName.endsWith(".docx")) {
-            return DocumentType.DOC;
-        }
-        
-        if (lowerFileName.endsWith(".xls") || lowerFileName.endsWith(".xlsx")) {
-            return DocumentType.EXCEL;
+        int dot = fileName.lastIndexOf('.');
+        if (dot == -1) {
+            return DocumentType.OTHER;
         }
-        
-        return DocumentType.OTHER;
+        return EXTENSIONS.getOrDefault(fileName.substring(dot + 1).toLowerCase(), DocumentType.OTHER);
     }
 
     /**
@@ -96,4 +126,3 @@ public class DocumentTypeDetector {
         return type != DocumentType.OTHER;
     }
 }
-
@@ -0,0 +1,163 @@
+package com.paymentrecovery.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class to detect a file's format from its leading bytes (magic numbers)
+ * Reads only the first {@link #HEADER_LENGTH} bytes of an upload, so the client's Content-Type and
+ * file name can be checked against the actual content before anything is stored
+ *
+ * Signatures are indexed by their first byte, so a lookup compares against at most a couple of
+ * candidates. Content without a signature counts as TEXT when the header is printable, which is the
+ * best that can be said about CSV from 16 bytes
+ */
+@Component
+@Slf4j
+public class FileSignatureDetector {
+
+    /**
+     * Bytes read from the start of a file
+     */
+    public static final int HEADER_LENGTH = 16;
+
+    /**
+     * Wildcard in a signature pattern
+     */
+    private static final int ANY = -1;
+
+    /**
+     * Signatures by first byte
+     */
+    private static final List<Signature>[] SIGNATURES_BY_FIRST_BYTE = buildSignatureTable();
+
+    /**
+     * File format recognized from content
+     * ZIP covers OOXML (docx, xlsx) and OLE2 covers legacy Office (doc, xls); neither can be told
+     * apart further from the header alone
+     */
+    public enum FileFormat {
+        PDF,
+        PNG,
+        JPEG,
+        GIF,
+        WEBP,
+        BMP,
+        OLE2,
+        ZIP,
+        TEXT,
+        UNKNOWN
+    }
+
+    /**
+     * Signature pattern; pattern bytes are unsigned values or {@link #ANY}
+     */
+    private record Signature(FileFormat format, int[] pattern) {
+    }
+
+    /**
+     * Detect the format of an uploaded file from its first bytes
+     *
+     * @param file Multipart file
+     * @return Detected format; UNKNOWN if the file is empty or cannot be read
+     */
+    public FileFormat detect(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            return FileFormat.UNKNOWN;
+        }
+        try (InputStream in = file.getInputStream()) {
+            byte[] header = in.readNBytes(HEADER_LENGTH);
+            return detect(header, header.length);
+        } catch (IOException e) {
+            log.warn("Could not read header of uploaded file: {}", file.getOriginalFilename(), e);
+            return FileFormat.UNKNOWN;
+        }
+    }
+
+    /**
+     * Detect a format from a file header
+     *
+     * @param header Leading bytes of the file
+     * @param length Number of valid bytes in header
+     * @return Detected format
+     */
+    public FileFormat detect(byte[] header, int length) {
+        if (length == 0) {
+            return FileFormat.UNKNOWN;
+        }
+        List<Signature> candidates = SIGNATURES_BY_FIRST_BYTE[header[0] & 0xFF];
+        if (candidates != null) {
+            for (Signature signature : candidates) {
+                if (matches(signature.pattern(), header, length)) {
+                    return signature.format();
+                }
+            }
+        }
+        return isText(header, length) ? FileFormat.TEXT : FileFormat.UNKNOWN;
+    }
+
+    private static boolean matches(int[] pattern, byte[] header, int length) {
+        if (pattern.length > length) {
+            return false;
+        }
+        for (int i = 0; i < pattern.length; i++) {
+            if (pattern[i] != ANY && pattern[i] != (header[i] & 0xFF)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Printable ASCII or UTF-8 with tabs and line breaks, and no control bytes
+     * A UTF-8 sequence cut off at the end of the header is fine
+     */
+    private static boolean isText(byte[] header, int length) {
+        for (int i = 0; i < length; i++) {
+            int b = header[i] & 0xFF;
+            if (b < 0x20 && b != '\t' && b != '\n' && b != '\r') {
+                return false;
+            }
+            if (b == 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Signature>[] buildSignatureTable() {
+        List<Signature> signatures = List.of(
+                new Signature(FileFormat.PDF, bytes("%PDF-")),
+                new Signature(FileFormat.PNG, new int[] {0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A}),
+                new Signature(FileFormat.JPEG, new int[] {0xFF, 0xD8, 0xFF}),
+                new Signature(FileFormat.GIF, bytes("GIF87a")),
+                new Signature(FileFormat.GIF, bytes("GIF89a")),
+                new Signature(FileFormat.WEBP, new int[] {'R', 'I', 'F', 'F', ANY, ANY, ANY, ANY, 'W', 'E', 'B', 'P'}),
+                // "BM", file size, then four reserved zero bytes; the zeros keep text starting with BM out
+                new Signature(FileFormat.BMP, new int[] {'B', 'M', ANY, ANY, ANY, ANY, 0, 0, 0, 0}),
+                new Signature(FileFormat.OLE2, new int[] {0xD0, 0xCF, 0x11, 0xE0, 0xA1, 0xB1, 0x1A, 0xE1}),
+                new Signature(FileFormat.ZIP, new int[] {'P', 'K', 0x03, 0x04})
+        );
+
+        List<Signature>[] table = new List[256];
+        for (Signature signature : signatures) {
+            int first = signature.pattern()[0];
+            if (table[first] == null) {
+                table[first] = new ArrayList<>();
+            }
+            table[first].add(signature);
+        }
+        return table;
+    }
+
+    private static int[] bytes(String ascii) {
+        return ascii.chars().toArray();
+    }
+}
@@ -0,0 +1,63 @@
+package com.paymentrecovery.util;
+
+import com.paymentrecovery.model.entity.Invoice;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for invoice listings
+ * Encodes the (createdAt, id) position of the last invoice on a slice
+ *
+ * @param createdAt createdAt of the last invoice returned
+ * @param id ID of the last invoice returned
+ */
+public record InvoiceCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Build the cursor pointing after the given invoice
+     *
+     * @param invoice Last invoice on the current slice
+     * @return Cursor for the next slice
+     */
+    public static InvoiceCursor after(Invoice invoice) {
+        return new InvoiceCursor(invoice.getCreatedAt(), invoice.getId());
+    }
+
+    /**
+     * Encode cursor as URL-safe Base64 string
+     *
+     * @return Opaque cursor string
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode an opaque cursor string
+     *
+     * @param cursor Cursor string produced by {@link #encode()}
+     * @return Decoded cursor
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static InvoiceCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            if (separatorIndex <= 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            LocalDateTime createdAt = LocalDateTime.parse(raw.substring(0, separatorIndex));
+            Long id = Long.valueOf(raw.substring(separatorIndex + 1));
+            return new InvoiceCursor(createdAt, id);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -6,59 +6,107 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.UUID;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 /**
  * Utility class for invoice file storage operations
+ * Files are content-addressed: an upload is streamed to a staging file while its SHA-256 is computed,
+ * then moved to {companyId}/{first two hex digits}/{hash}.{extension}. Identical content therefore
+ * maps to one file, and a caller that already knows the content can discard the staged copy
  */
 @Component
 @Slf4j
 public class InvoiceFileStorageUtil {
 
+    private static final String STAGING_DIR = ".staging";
+
     @Value("${app.invoice.upload-dir:uploads/invoices}")
     private String uploadDir;
 
     /**
-     * Store uploaded invoice file and return the file path
+     * Upload streamed to the staging area, not yet part of the store
+     *
+     * @param stagingPath Staging file
+     * @param contentHash Hex SHA-256 of the content
+     * @param size Size in bytes
+     * @param extension File extension (without dot)
+     */
+    public record StagedFile(Path stagingPath, String contentHash, long size, String extension) {
+    }
+
+    /**
+     * Stream an uploaded invoice file to the staging area, hashing it on the way
+     * The file is read once; callers must {@link #commitFile commit} or {@link #discardFile discard} it
      *
      * @param file Multipart file
+     * @return Staged file with its content hash
+     * @throws IOException if file storage fails
+     */
+    public StagedFile stageFile(MultipartFile file) throws IOException {
+        Path stagingDir = Paths.get(uploadDir, STAGING_DIR);
+        Files.createDirectories(stagingDir);
+        Path stagingPath = Files.createTempFile(stagingDir, "upload-", ".part");
+
+        MessageDigest digest = newSha256();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            long size = Files.copy(in, stagingPath, StandardCopyOption.REPLACE_EXISTING);
+            return new StagedFile(stagingPath, HexFormat.of().formatHex(digest.digest()), size,
+                    getFileExtension(file.getOriginalFilename()));
+        } catch (IOException e) {
+            Files.deleteIfExists(stagingPath);
+            throw e;
+        }
+    }
+
+    /**
+     * Move a staged file to its content-addressed location
+     * If the content is already stored there, the staged copy is dropped
+     *
+     * @param staged Staged file
      * @param companyId Company ID for organizing files
      * @return Stored file path (relative to upload directory)
      * @throws IOException if file storage fails
      */
-    public String storeFile(MultipartFile file, Long companyId) throws IOException {
-        // Generate unique file name
-        String originalFileName = file.getOriginalFilename();
-        String fileExtension = getFileExtension(originalFileName);
-        String storedFileName = generateUniqueFileName(fileExtension);
-        
-        // Create directory structure: uploads/invoices/companyId/YYYY/MM/DD/
-        LocalDate today = LocalDate.now();
-        String datePath = today.format(DateTimeFormatter.ofPattern("yyyy/MM/dd"));
-        Path companyDir = Paths.get(uploadDir, String.valueOf(companyId), datePath);
-        
-        // Create directories if they don't exist
-        Files.createDirectories(companyDir);
-        
-        // Store file
-        Path targetLocation = companyDir.resolve(storedFileName);
-        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-        
-        // Return relative path from upload directory
-        String relativePath = Paths.get(String.valueOf(companyId), datePath, storedFileName)
-                .toString()
-                .replace("\\", "/");
-        
-        log.info("Invoice file stored successfully: {}", relativePath);
+    public String commitFile(StagedFile staged, Long companyId) throws IOException {
+        String hash = staged.contentHash();
+        String relativePath = String.join("/", String.valueOf(companyId), hash.substring(0, 2),
+                hash + "." + staged.extension());
+        Path targetLocation = Paths.get(uploadDir, relativePath);
+        Files.createDirectories(targetLocation.getParent());
+
+        if (Files.exists(targetLocation)) {
+            discardFile(staged);
+            log.info("Invoice file already stored: {}", relativePath);
+        } else {
+            // A rename on the same file system: readers never see a partial file, and a concurrent
+            // upload of the same content just replaces it with identical bytes
+            Files.move(staged.stagingPath(), targetLocation, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Invoice file stored successfully: {}", relativePath);
+        }
         return relativePath;
     }
 
+    /**
+     * Delete a staged file that is not needed; does nothing once it was committed
+     *
+     * @param staged Staged file
+     */
+    public void discardFile(StagedFile staged) {
+        try {
+            Files.deleteIfExists(staged.stagingPath());
+        } catch (IOException e) {
+            log.warn("Could not delete staged invoice file: {}", staged.stagingPath(), e);
+        }
+    }
+
     /**
      * Get full file path
      *
@@ -87,16 +135,6 @@ public class InvoiceFileStorageUtil {
         }
     }
 
-    /**
-     * Generate unique file name
-     *
-     * @param extension File extension
-     * @return Unique file name
-     */
-    private String generateUniqueFileName(String extension) {
-        return UUID.randomUUID().toString() + "." + extension;
-    }
-
     /**
      * Get file extension from file name
      *
@@ -109,5 +147,12 @@ public class InvoiceFileStorageUtil {
         }
         return fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase();
     }
-}
 
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,63 +1,88 @@
 package com.paymentrecovery.util;
 
+import com.paymentrecovery.util.FileSignatureDetector.FileFormat;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Utility class to validate invoice file types
+ * The declared type (file extension, or Content-Type when there is no known extension) must agree
+ * with the format sniffed from the file's first bytes, so mislabelled files are rejected before they
+ * are stored or sent for extraction
  */
 @Component
+@RequiredArgsConstructor
 public class InvoiceFileTypeValidator {
 
-    private static final List<String> ALLOWED_EXTENSIONS = Arrays.asList(
-            "pdf", "png", "jpg", "jpeg", "doc", "docx", "xls", "xlsx", "csv"
+    /**
+     * Formats each allowed extension may contain
+     */
+    private static final Map<String, Set<FileFormat>> EXTENSION_FORMATS = Map.of(
+            "pdf", EnumSet.of(FileFormat.PDF),
+            "png", EnumSet.of(FileFormat.PNG),
+            "jpg", EnumSet.of(FileFormat.JPEG),
+            "jpeg", EnumSet.of(FileFormat.JPEG),
+            "doc", EnumSet.of(FileFormat.OLE2),
+            "docx", EnumSet.of(FileFormat.ZIP),
+            "xls", EnumSet.of(FileFormat.OLE2),
+            "xlsx", EnumSet.of(FileFormat.ZIP),
+            "csv", EnumSet.of(FileFormat.TEXT)
     );
 
-    private static final List<String> ALLOWED_MIME_TYPES = Arrays.asList(
-            "application/pdf",
-            "image/png",
-            "image/jpeg",
-            "image/jpg",
-            "application/msword",
-            "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
-            "application/vnd.ms-excel",
-            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
-            "text/csv",
-            "application/csv",
-            "text/plain" // CSV files sometimes have text/plain MIME type
+    /**
+     * Allowed extensions for error messages, in alphabetical order
+     */
+    private static final String ALLOWED_EXTENSIONS = String.join(", ", new TreeSet<>(EXTENSION_FORMATS.keySet()));
+
+    /**
+     * Formats each allowed MIME type may contain
+     */
+    private static final Map<String, Set<FileFormat>> MIME_TYPE_FORMATS = Map.ofEntries(
+            Map.entry("application/pdf", EnumSet.of(FileFormat.PDF)),
+            Map.entry("image/png", EnumSet.of(FileFormat.PNG)),
+            Map.entry("image/jpeg", EnumSet.of(FileFormat.JPEG)),
+            Map.entry("image/jpg", EnumSet.of(FileFormat.JPEG)),
+            Map.entry("application/msword", EnumSet.of(FileFormat.OLE2)),
+            Map.entry("application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+                    EnumSet.of(FileFormat.ZIP)),
+            Map.entry("application/vnd.ms-excel", EnumSet.of(FileFormat.OLE2, FileFormat.TEXT)),
+            Map.entry("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                    EnumSet.of(FileFormat.ZIP)),
+            Map.entry("text/csv", EnumSet.of(FileFormat.TEXT)),
+            Map.entry("application/csv", EnumSet.of(FileFormat.TEXT)),
+            Map.entry("text/plain", EnumSet.of(FileFormat.TEXT)) // CSV files sometimes have text/plain MIME type
     );
 
+    private final FileSignatureDetector fileSignatureDetector;
+
     /**
      * Validate if file type is allowed
+     * Reads only the first bytes of the file
      *
      * @param file Multipart file
-     * @return True if file type is allowed
+     * @return True if the declared file type is allowed and matches the file's content
      */
     public boolean isValidFileType(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             return false;
         }
 
-        String fileName = file.getOriginalFilename();
-        String contentType = file.getContentType();
-
-        // Check by file extension
-        if (fileName != null) {
-            String extension = getFileExtension(fileName).toLowerCase();
-            if (ALLOWED_EXTENSIONS.contains(extension)) {
-                return true;
-            }
+        // The extension decides when it is known (it is also what the stored file is named after)
+        Set<FileFormat> expected = EXTENSION_FORMATS.get(getFileExtension(file.getOriginalFilename()).toLowerCase());
+        if (expected == null && file.getContentType() != null) {
+            expected = MIME_TYPE_FORMATS.get(file.getContentType().toLowerCase());
         }
-
-        // Check by MIME type
-        if (contentType != null && ALLOWED_MIME_TYPES.contains(contentType.toLowerCase())) {
-            return true;
+        if (expected == null) {
+            return false;
         }
 
-        return false;
+        return expected.contains(fileSignatureDetector.detect(file));
     }
 
     /**
@@ -79,7 +104,7 @@ public class InvoiceFileTypeValidator {
      * @return Comma-separated list of allowed extensions
      */
     public String getAllowedFileTypes() {
-        return String.join(", ", ALLOWED_EXTENSIONS);
+        return ALLOWED_EXTENSIONS;
     }
 }
 
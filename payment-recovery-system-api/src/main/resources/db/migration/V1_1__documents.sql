@@ -0,0 +1,26 @@
+-- Documents table (DocumentService), missing from V1. Databases baselined at V1 already have it
+-- from Hibernate; a new database needs it before V3 indexes documents(stored_file_name)
+CREATE TABLE IF NOT EXISTS documents (
+    id BIGSERIAL PRIMARY KEY,
+    company_id BIGINT NOT NULL,
+    invoice_id BIGINT,
+    original_file_name VARCHAR(255) NOT NULL,
+    stored_file_name VARCHAR(255) NOT NULL,
+    file_path VARCHAR(500) NOT NULL,
+    document_type VARCHAR(20) NOT NULL,
+    mime_type VARCHAR(100),
+    file_size BIGINT NOT NULL,
+    description VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    CONSTRAINT fk_document_company FOREIGN KEY (company_id) REFERENCES companies(id),
+    CONSTRAINT fk_document_invoice FOREIGN KEY (invoice_id) REFERENCES invoices(id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_document_company_id ON documents(company_id);
+CREATE INDEX IF NOT EXISTS idx_document_invoice_id ON documents(invoice_id);
+CREATE INDEX IF NOT EXISTS idx_document_type ON documents(document_type);
+
+ALTER SEQUENCE IF EXISTS documents_id_seq INCREMENT BY 50;
+
+COMMENT ON TABLE documents IS 'Uploaded documents belonging to a company and optionally an invoice';
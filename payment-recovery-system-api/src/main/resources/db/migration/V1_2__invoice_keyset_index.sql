@@ -0,0 +1,5 @@
+-- Keyset pagination of company invoice listings, formerly db/migration_add_invoice_keyset_index.sql
+-- WHERE company_id = ? AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC
+-- V1 creates it on new databases; CONCURRENTLY keeps invoices writable on databases baselined at V1
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_invoice_company_created_at_id
+    ON invoices(company_id, created_at, id);
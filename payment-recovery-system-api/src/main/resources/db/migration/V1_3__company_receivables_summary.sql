@@ -0,0 +1,37 @@
+-- Per-company receivables summary, formerly db/migration_add_company_receivables_summary.sql
+-- V1 creates the table on new databases; databases baselined at V1 get it here
+CREATE TABLE IF NOT EXISTS company_receivables_summary (
+    company_id BIGINT PRIMARY KEY,
+    pending_invoices BIGINT NOT NULL DEFAULT 0,
+    pending_amount NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    paid_invoices BIGINT NOT NULL DEFAULT 0,
+    overdue_invoices BIGINT NOT NULL DEFAULT 0,
+    overdue_amount NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    overdue_as_of DATE,
+    recovered_month DATE,
+    money_recovered_this_month NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP,
+    CONSTRAINT fk_receivables_summary_company FOREIGN KEY (company_id) REFERENCES companies(id)
+);
+
+-- Backfill one row per company from existing invoices
+-- Rows missed here (or left uncomputed) are rebuilt by the application on first read
+INSERT INTO company_receivables_summary (
+    company_id, pending_invoices, pending_amount, paid_invoices,
+    overdue_invoices, overdue_amount, overdue_as_of,
+    recovered_month, money_recovered_this_month, updated_at)
+SELECT c.id,
+       COUNT(i.id) FILTER (WHERE i.status = 'PENDING'),
+       COALESCE(SUM(i.amount) FILTER (WHERE i.status = 'PENDING'), 0),
+       COUNT(i.id) FILTER (WHERE i.status = 'PAID'),
+       COUNT(i.id) FILTER (WHERE i.status = 'PENDING' AND i.due_date < CURRENT_DATE),
+       COALESCE(SUM(i.amount) FILTER (WHERE i.status = 'PENDING' AND i.due_date < CURRENT_DATE), 0),
+       CURRENT_DATE,
+       DATE_TRUNC('month', CURRENT_DATE)::DATE,
+       COALESCE(SUM(i.amount) FILTER (WHERE i.status = 'PAID'
+           AND i.updated_at >= DATE_TRUNC('month', CURRENT_DATE)), 0),
+       CURRENT_TIMESTAMP
+FROM companies c
+LEFT JOIN invoices i ON i.company_id = c.id
+GROUP BY c.id
+ON CONFLICT (company_id) DO NOTHING;
@@ -0,0 +1,32 @@
+-- Entity IDs switch from IDENTITY to sequences with a pooled-lo optimizer,
+-- formerly db/migration_add_pooled_id_sequences.sql
+
+-- Hibernate now calls nextval on {table}_id_seq and uses the 50 IDs starting at the returned value,
+-- so each sequence must step by 50. Rows inserted through the column default still take a fresh
+-- block of 50 and can never collide with IDs handed out by the application.
+-- Tables created by Hibernate with identity columns get the same treatment via pg_get_serial_sequence.
+DO $$
+DECLARE
+    table_name TEXT;
+    sequence_name TEXT;
+BEGIN
+    FOREACH table_name IN ARRAY ARRAY['companies', 'users', 'customers', 'invoices',
+                                      'payments', 'reminder_logs', 'documents']
+    LOOP
+        IF to_regclass(table_name) IS NULL THEN
+            CONTINUE;
+        END IF;
+
+        sequence_name := pg_get_serial_sequence(table_name, 'id');
+        IF sequence_name IS NULL THEN
+            -- Plain BIGINT id: create the sequence and start it after the existing rows
+            sequence_name := table_name || '_id_seq';
+            EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50 OWNED BY %I.id',
+                           sequence_name, table_name);
+            EXECUTE format('SELECT setval(%L, COALESCE((SELECT MAX(id) FROM %I), 0) + 1, false)',
+                           sequence_name, table_name);
+        ELSE
+            EXECUTE format('ALTER SEQUENCE %s INCREMENT BY 50', sequence_name);
+        END IF;
+    END LOOP;
+END $$;
@@ -81,6 +81,8 @@ CREATE INDEX IF NOT EXISTS idx_invoice_customer_id ON invoices(customer_id);
 CREATE INDEX IF NOT EXISTS idx_invoice_invoice_number ON invoices(invoice_number);
 CREATE INDEX IF NOT EXISTS idx_invoice_status ON invoices(status);
 CREATE INDEX IF NOT EXISTS idx_invoice_due_date ON invoices(due_date);
+-- Keyset pagination of company invoice listings (ORDER BY created_at DESC, id DESC)
+CREATE INDEX IF NOT EXISTS idx_invoice_company_created_at_id ON invoices(company_id, created_at, id);
 
 -- Create Payments Table
 CREATE TABLE IF NOT EXISTS payments (
@@ -114,6 +116,30 @@ CREATE INDEX IF NOT EXISTS idx_reminder_log_invoice_id ON reminder_logs(invoice_
 CREATE INDEX IF NOT EXISTS idx_reminder_log_sent_date ON reminder_logs(sent_date);
 CREATE INDEX IF NOT EXISTS idx_reminder_log_type_channel ON reminder_logs(reminder_type, channel);
 
+-- Create Company Receivables Summary Table
+-- One row per company, maintained on every invoice status transition
+CREATE TABLE IF NOT EXISTS company_receivables_summary (
+    company_id BIGINT PRIMARY KEY,
+    pending_invoices BIGINT NOT NULL DEFAULT 0,
+    pending_amount NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    paid_invoices BIGINT NOT NULL DEFAULT 0,
+    overdue_invoices BIGINT NOT NULL DEFAULT 0,
+    overdue_amount NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    overdue_as_of DATE,
+    recovered_month DATE,
+    money_recovered_this_month NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP,
+    CONSTRAINT fk_receivables_summary_company FOREIGN KEY (company_id) REFERENCES companies(id)
+);
+
+-- ID sequences step by 50: the application reserves blocks of IDs (pooled-lo) to batch inserts
+ALTER SEQUENCE companies_id_seq INCREMENT BY 50;
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE customers_id_seq INCREMENT BY 50;
+ALTER SEQUENCE invoices_id_seq INCREMENT BY 50;
+ALTER SEQUENCE payments_id_seq INCREMENT BY 50;
+ALTER SEQUENCE reminder_logs_id_seq INCREMENT BY 50;
+
 -- Comments for documentation
 COMMENT ON TABLE companies IS 'Multi-tenant root entity - represents a company/tenant';
 COMMENT ON TABLE users IS 'Users belonging to a company';
@@ -121,4 +147,5 @@ COMMENT ON TABLE customers IS 'Customers belonging to a company';
 COMMENT ON TABLE invoices IS 'Invoices belonging to a company and customer';
 COMMENT ON TABLE payments IS 'Payments received for invoices';
 COMMENT ON TABLE reminder_logs IS 'Log of reminders sent to customers';
+COMMENT ON TABLE company_receivables_summary IS 'Per-company dashboard totals, updated incrementally';
 
@@ -0,0 +1,33 @@
+-- Composite and partial indexes matched to the repository query shapes
+-- CONCURRENTLY keeps invoices writable while the indexes build; Flyway runs this
+-- migration outside a transaction because every statement is concurrent
+
+-- Dashboard aggregate, overdue refresh, counts and status listings:
+-- WHERE company_id = ? AND status IN (...) with due_date ranges, SUM(amount), updated_at month range
+-- INCLUDE makes the dashboard aggregate and overdue refresh index-only scans
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_invoice_company_status_due_date
+    ON invoices(company_id, status, due_date) INCLUDE (amount, updated_at);
+
+-- Company invoice listings filtered by status, ORDER BY created_at DESC, id DESC (page and keyset modes)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_invoice_company_status_created_at_id
+    ON invoices(company_id, status, created_at, id);
+
+-- Reminder list, NDJSON stream and scheduler rebuild: WHERE status = 'PENDING' ORDER BY due_date
+-- Partial, so it only holds the open receivables; INCLUDE covers the invoice side of the reminder projection
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_invoice_pending_due_date
+    ON invoices(due_date, id) INCLUDE (company_id, customer_id, invoice_number, amount)
+    WHERE status = 'PENDING';
+
+-- Latest reminder per invoice: WHERE invoice_id = ? ORDER BY sent_date DESC / MAX(sent_date)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reminder_log_invoice_id_sent_date
+    ON reminder_logs(invoice_id, sent_date);
+
+-- Payments of an invoice ordered by date, and SUM(amount_received) per invoice as an index-only scan
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payment_invoice_id_payment_date
+    ON payments(invoice_id, payment_date) INCLUDE (amount_received);
+
+-- Single-column indexes now covered by the leading column of a composite index above
+-- (company_id also leads idx_invoice_company_created_at_id); dropping them saves write amplification
+DROP INDEX CONCURRENTLY IF EXISTS idx_invoice_company_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_reminder_log_invoice_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_payment_invoice_id;
@@ -0,0 +1,3 @@
+-- Stored-file lookups (DocumentRepository.findByStoredFileName) had no index and read the whole table
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_document_stored_file_name
+    ON documents(stored_file_name);
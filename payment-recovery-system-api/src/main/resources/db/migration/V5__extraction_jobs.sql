@@ -0,0 +1,24 @@
+-- Durable extraction queue (ExtractionJobService). Rows are written in the upload transaction and
+-- claimed by workers with SELECT ... FOR UPDATE SKIP LOCKED; locked_until is the worker's lease
+CREATE TABLE IF NOT EXISTS extraction_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    invoice_id BIGINT NOT NULL,
+    file_path VARCHAR(500) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    run_at TIMESTAMP NOT NULL,
+    locked_by VARCHAR(100),
+    locked_until TIMESTAMP,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    CONSTRAINT fk_extraction_job_invoice FOREIGN KEY (invoice_id) REFERENCES invoices(id) ON DELETE CASCADE,
+    CONSTRAINT chk_extraction_job_status CHECK (status IN ('PENDING', 'RUNNING', 'SUCCEEDED', 'DEAD'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_extraction_job_invoice_id ON extraction_jobs(invoice_id);
+CREATE INDEX IF NOT EXISTS idx_extraction_job_status_run_at ON extraction_jobs(status, run_at);
+
+ALTER SEQUENCE extraction_jobs_id_seq INCREMENT BY 50;
+
+COMMENT ON TABLE extraction_jobs IS 'Durable queue of invoice extraction requests to the Python service';
@@ -0,0 +1,25 @@
+-- Content-addressed invoice file store (InvoiceService.uploadInvoiceFile). One row per distinct file
+-- content per company; reference_count is the number of invoices pointing at the file
+CREATE TABLE IF NOT EXISTS stored_files (
+    id BIGSERIAL PRIMARY KEY,
+    company_id BIGINT NOT NULL,
+    content_hash VARCHAR(64) NOT NULL,
+    file_path VARCHAR(500) NOT NULL,
+    file_size BIGINT NOT NULL,
+    -- Only ever incremented (StoredFileRepository.addReference): invoices cannot be deleted yet, so
+    -- there is no release path. Whatever adds invoice deletion must decrement it and remove the file
+    -- and row at zero
+    reference_count INTEGER NOT NULL DEFAULT 1,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    CONSTRAINT fk_stored_file_company FOREIGN KEY (company_id) REFERENCES companies(id) ON DELETE CASCADE,
+    CONSTRAINT uk_stored_file_company_content_hash UNIQUE (company_id, content_hash)
+);
+
+ALTER SEQUENCE stored_files_id_seq INCREMENT BY 50;
+
+COMMENT ON TABLE stored_files IS 'Deduplicated invoice files, keyed by SHA-256 of their content, with reference counts';
+
+-- Links an invoice to its stored_files row, whose cached extraction result (ExtractionCacheService)
+-- a re-upload of the same content reuses
+ALTER TABLE invoices ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
@@ -0,0 +1,6 @@
+-- Extraction result cache (ExtractionCacheService). The result of extracting a stored file is kept on
+-- its stored_files row, tagged with the extractor version that produced it; a later upload of the same
+-- content reuses it while the version still matches app.extraction.cache.extractor-version
+ALTER TABLE stored_files ADD COLUMN IF NOT EXISTS extracted_data JSONB;
+ALTER TABLE stored_files ADD COLUMN IF NOT EXISTS extractor_version VARCHAR(50);
+ALTER TABLE stored_files ADD COLUMN IF NOT EXISTS extracted_at TIMESTAMP;
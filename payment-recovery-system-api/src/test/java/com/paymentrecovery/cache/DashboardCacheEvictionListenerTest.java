@@ -0,0 +1,144 @@
+package com.paymentrecovery.cache;
+
+import com.paymentrecovery.event.InvoiceChangedEvent;
+import com.paymentrecovery.model.enums.InvoiceStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * DashboardCacheEvictionListener with a real transaction manager
+ * Evictions must wait for the commit, skip rolled-back changes, and the date rollover must drop every company
+ */
+@SpringJUnitConfig(DashboardCacheEvictionListenerTest.Config.class)
+class DashboardCacheEvictionListenerTest {
+
+    @Configuration
+    @EnableTransactionManagement
+    static class Config {
+
+        @Bean
+        DataSource dataSource() {
+            return new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .generateUniqueName(true)
+                    .build();
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CacheNames.COMPANY_DASHBOARD_METRICS, CacheNames.PLATFORM_METRICS);
+        }
+
+        @Bean
+        DashboardCacheEvictionListener dashboardCacheEvictionListener(CacheManager cacheManager) {
+            return new DashboardCacheEvictionListener(cacheManager);
+        }
+    }
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private DashboardCacheEvictionListener listener;
+
+    @BeforeEach
+    void fillCaches() {
+        companyCache().clear();
+        companyCache().put(1L, "company 1 metrics");
+        companyCache().put(2L, "company 2 metrics");
+        platformCache().put(CacheNames.PLATFORM_METRICS_KEY, "platform metrics");
+    }
+
+    @Test
+    void evictsOnlyAfterCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new InvoiceChangedEvent(10L, 1L, InvoiceStatus.PENDING, InvoiceStatus.PAID));
+
+            // Still cached inside the transaction: a reader here would re-cache pre-commit numbers
+            assertThat(companyCache().get(1L)).isNotNull();
+            assertThat(platformCache().get(CacheNames.PLATFORM_METRICS_KEY)).isNotNull();
+        });
+
+        assertThat(companyCache().get(1L)).isNull();
+        assertThat(companyCache().get(2L)).isNotNull();
+        assertThat(platformCache().get(CacheNames.PLATFORM_METRICS_KEY)).isNull();
+    }
+
+    @Test
+    void keepsEntriesWhenTransactionRollsBack() {
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new InvoiceChangedEvent(10L, 1L, InvoiceStatus.DRAFT, InvoiceStatus.PENDING));
+            status.setRollbackOnly();
+        });
+
+        assertThat(companyCache().get(1L)).isNotNull();
+        assertThat(platformCache().get(CacheNames.PLATFORM_METRICS_KEY)).isNotNull();
+    }
+
+    @Test
+    void draftChangeKeepsCompanyMetrics() {
+        transactionTemplate.executeWithoutResult(status ->
+                eventPublisher.publishEvent(new InvoiceChangedEvent(10L, 1L, null, InvoiceStatus.DRAFT)));
+
+        assertThat(companyCache().get(1L)).isNotNull();
+        assertThat(platformCache().get(CacheNames.PLATFORM_METRICS_KEY)).isNull();
+    }
+
+    @Test
+    void evictsImmediatelyOutsideTransaction() {
+        eventPublisher.publishEvent(new InvoiceChangedEvent(10L, 1L, InvoiceStatus.PENDING, InvoiceStatus.PAID));
+
+        assertThat(companyCache().get(1L)).isNull();
+    }
+
+    @Test
+    void dateRolloverClearsEveryCompany() {
+        listener.evictOnDateRollover();
+
+        assertThat(companyCache().get(1L)).isNull();
+        assertThat(companyCache().get(2L)).isNull();
+        assertThat(platformCache().get(CacheNames.PLATFORM_METRICS_KEY)).isNotNull();
+    }
+
+    private Cache companyCache() {
+        return cacheManager.getCache(CacheNames.COMPANY_DASHBOARD_METRICS);
+    }
+
+    private Cache platformCache() {
+        return cacheManager.getCache(CacheNames.PLATFORM_METRICS);
+    }
+}
@@ -0,0 +1,136 @@
+package com.paymentrecovery.cache;
+
+import io.lettuce.core.ClientOptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * FallbackCacheManager against an embedded Redis server
+ * Covers the Redis tier, the Caffeine fallback while Redis is down, and the one-off Redis clear on recovery
+ */
+class FallbackCacheManagerTest {
+
+    private static final String CACHE = CacheNames.COMPANY_DASHBOARD_METRICS;
+    private static final Duration RETRY_INTERVAL = Duration.ofMillis(200);
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisCacheManager redisCacheManager;
+    private CaffeineCacheManager localCacheManager;
+    private FallbackCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        int port = freePort();
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        // Fail fast while disconnected instead of queueing commands until the timeout
+        LettuceClientConfiguration clientConfiguration = LettuceClientConfiguration.builder()
+                .commandTimeout(Duration.ofMillis(500))
+                .clientOptions(ClientOptions.builder()
+                        .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                        .build())
+                .build();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("localhost", port), clientConfiguration);
+        connectionFactory.afterPropertiesSet();
+
+        redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig().disableCachingNullValues())
+                .initialCacheNames(Set.of(CACHE))
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        localCacheManager = new CaffeineCacheManager(CACHE);
+        localCacheManager.setAllowNullValues(false);
+
+        cacheManager = new FallbackCacheManager(redisCacheManager, localCacheManager, RETRY_INTERVAL);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        connectionFactory.destroy();
+        if (redisServer.isActive()) {
+            redisServer.stop();
+        }
+    }
+
+    @Test
+    void usesRedisWhileItIsAvailable() {
+        Cache cache = cacheManager.getCache(CACHE);
+
+        cache.put(1L, "metrics");
+
+        assertThat(cache.get(1L, String.class)).isEqualTo("metrics");
+        assertThat(redisCache().get(1L, String.class)).isEqualTo("metrics");
+        assertThat(localCache().get(1L)).isNull();
+    }
+
+    @Test
+    void fallsBackToCaffeineWhenRedisIsDown() throws IOException {
+        Cache cache = cacheManager.getCache(CACHE);
+        redisServer.stop();
+
+        cache.put(1L, "metrics");
+
+        assertThat(cacheManager.isRemoteAvailable()).isFalse();
+        assertThat(cache.get(1L, String.class)).isEqualTo("metrics");
+        assertThat(localCache().get(1L, String.class)).isEqualTo("metrics");
+    }
+
+    @Test
+    void loadsThroughCaffeineWhenRedisIsDown() throws IOException {
+        Cache cache = cacheManager.getCache(CACHE);
+        redisServer.stop();
+
+        assertThat(cache.get(1L, () -> "loaded")).isEqualTo("loaded");
+        assertThat(cache.get(1L, () -> "loaded again")).isEqualTo("loaded");
+    }
+
+    @Test
+    void clearsRedisOnceItIsReachableAgain() throws InterruptedException {
+        Cache cache = cacheManager.getCache(CACHE);
+        cache.put(1L, "before outage");
+
+        // The eviction during the outage only reaches the local tier and leaves a stale Redis entry
+        cacheManager.markRemoteDown(new IllegalStateException("simulated outage"));
+        cache.evict(1L);
+        assertThat(redisCache().get(1L, String.class)).isEqualTo("before outage");
+
+        Thread.sleep(RETRY_INTERVAL.toMillis() + 50);
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(redisCache().get(1L)).isNull();
+    }
+
+    private Cache redisCache() {
+        return redisCacheManager.getCache(CACHE);
+    }
+
+    private Cache localCache() {
+        return localCacheManager.getCache(CACHE);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.paymentrecovery.controller.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymentrecovery.model.dto.request.ExtractedInvoiceDataBatchItem;
+import com.paymentrecovery.model.dto.request.ExtractedInvoiceDataRequest;
+import com.paymentrecovery.model.dto.response.ExtractedDataBatchItemResult;
+import com.paymentrecovery.model.dto.response.ExtractedDataBatchResponse;
+import com.paymentrecovery.service.InvoiceService;
+import com.paymentrecovery.service.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Chunking of extracted-data batches
+ * Each chunk is stored in its own transaction; a failed chunk is reported item by item without
+ * affecting the others
+ */
+@ExtendWith(MockitoExtension.class)
+class InvoiceControllerTest {
+
+    private static final Long COMPANY_ID = 1L;
+
+    @Mock
+    private InvoiceService invoiceService;
+
+    @Mock
+    private PaymentService paymentService;
+
+    private InvoiceController invoiceController;
+
+    @BeforeEach
+    void createController() {
+        invoiceController = new InvoiceController(invoiceService, paymentService, new ObjectMapper());
+        ReflectionTestUtils.setField(invoiceController, "extractedDataChunkSize", 2);
+    }
+
+    @Test
+    void batchIsStoredInChunksForCallerCompany() {
+        when(invoiceService.storeExtractedDataBatch(eq(COMPANY_ID), anyList(), anyInt()))
+                .thenAnswer(invocation -> stored(invocation.getArgument(1), invocation.getArgument(2)));
+
+        ExtractedDataBatchResponse response = invoiceController.storeExtractedDataBatch(COMPANY_ID, items(5)).getBody();
+
+        verify(invoiceService).storeExtractedDataBatch(eq(COMPANY_ID), anyList(), eq(0));
+        verify(invoiceService).storeExtractedDataBatch(eq(COMPANY_ID), anyList(), eq(2));
+        verify(invoiceService).storeExtractedDataBatch(eq(COMPANY_ID), anyList(), eq(4));
+        assertThat(response.getReceived()).isEqualTo(5);
+        assertThat(response.getStored()).isEqualTo(5);
+        assertThat(response.getResults()).extracting(ExtractedDataBatchItemResult::getIndex)
+                .containsExactly(0, 1, 2, 3, 4);
+    }
+
+    @Test
+    void failedChunkIsReportedPerItem() {
+        when(invoiceService.storeExtractedDataBatch(eq(COMPANY_ID), anyList(), anyInt()))
+                .thenAnswer(invocation -> stored(invocation.getArgument(1), invocation.getArgument(2)));
+        doThrow(new IllegalStateException("Connection lost"))
+                .when(invoiceService).storeExtractedDataBatch(eq(COMPANY_ID), anyList(), eq(2));
+
+        ExtractedDataBatchResponse response = invoiceController.storeExtractedDataBatch(COMPANY_ID, items(5)).getBody();
+
+        assertThat(response.getStored()).isEqualTo(3);
+        assertThat(response.getRejected()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(ExtractedDataBatchItemResult::getStored)
+                .containsExactly(true, true, false, false, true);
+        assertThat(response.getResults().get(2).getError()).isEqualTo("Failed to store extracted data");
+    }
+
+    private static List<ExtractedInvoiceDataBatchItem> items(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new ExtractedInvoiceDataBatchItem(100L + i, new ExtractedInvoiceDataRequest()))
+                .toList();
+    }
+
+    private static List<ExtractedDataBatchItemResult> stored(List<ExtractedInvoiceDataBatchItem> chunk, int firstIndex) {
+        return IntStream.range(0, chunk.size())
+                .mapToObj(i -> ExtractedDataBatchItemResult.builder()
+                        .index(firstIndex + i)
+                        .invoiceId(chunk.get(i).getInvoiceId())
+                        .stored(true)
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,368 @@
+package com.paymentrecovery.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymentrecovery.model.dto.response.InvoiceReminderDto;
+import com.paymentrecovery.model.enums.DocumentType;
+import com.paymentrecovery.model.enums.InvoiceStatus;
+import com.paymentrecovery.repository.StatementRecorder.Binding;
+import com.paymentrecovery.repository.StatementRecorder.RecordedStatement;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query plans of the hot repository queries on PostgreSQL
+ * Runs each repository method, records the SQL Hibernate sends with its bound parameters, and checks
+ * EXPLAIN of every recorded statement: no sequential scan on a large table, total cost within budget
+ * The schema comes from the Flyway migrations; the data is seeded and analyzed once per class
+ * Skipped when Docker is not available
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(StatementRecorder.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTest {
+
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    /**
+     * Sequential scans on tables with fewer rows are not reported; the planner rightly prefers them
+     */
+    private static final long MIN_TABLE_ROWS = 10_000;
+
+    private static final double LOOKUP_COST = 100;
+    private static final double COMPANY_COST = 5000;
+    private static final double UNBOUNDED = Double.MAX_VALUE;
+
+    private static final int COMPANIES = 50;
+    private static final int CUSTOMERS = 5_000;
+    private static final int INVOICES = 200_000;
+
+    private static final long COMPANY_ID = 7L;
+    private static final long INVOICE_ID = 100_000L;
+    private static final LocalDate TODAY = LocalDate.of(2026, 6, 15);
+    private static final LocalDateTime MONTH_START = TODAY.withDayOfMonth(1).atStartOfDay();
+    private static final String SEARCH_PATTERN = "%inv-1%";
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        // Started here rather than by @Container: the per-class test instance loads the Spring context,
+        // which connects, before the Testcontainers extension would start it
+        POSTGRES.start();
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private ReminderLogRepository reminderLogRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Double> tableRows = new HashMap<>();
+    private TransactionTemplate readOnlyTransaction;
+
+    /**
+     * Companies own 4,000 invoices each: 5% DRAFT, 10% PENDING, 85% PAID, like a running system
+     */
+    @BeforeAll
+    void seedDatabase() {
+        jdbcTemplate.update("INSERT INTO companies (id, name, gst_number, is_active, is_approved) " +
+                "SELECT g, 'Company ' || g, 'GST' || g, true, true FROM generate_series(1, ?) g", COMPANIES);
+        jdbcTemplate.update("INSERT INTO customers (id, company_id, customer_name, email, phone) " +
+                "SELECT g, 1 + g % ?, 'Customer ' || g, 'customer' || g || '@example.com', '+91' || g " +
+                "FROM generate_series(1, ?) g", COMPANIES, CUSTOMERS);
+        jdbcTemplate.update("INSERT INTO invoices (id, company_id, customer_id, invoice_number, invoice_date, " +
+                "due_date, amount, status, created_at, updated_at) " +
+                "SELECT g, 1 + (1 + g % ?) % ?, CASE WHEN g / 50 % 20 = 0 THEN NULL ELSE 1 + g % ? END, " +
+                "'INV-' || g, DATE '2026-01-01' + g % 180, DATE '2026-01-31' + g % 180, 100 + g % 5000, " +
+                "CASE WHEN g / 50 % 20 = 0 THEN 'DRAFT' WHEN g / 50 % 20 < 3 THEN 'PENDING' ELSE 'PAID' END, " +
+                "TIMESTAMP '2026-01-01' + g * INTERVAL '1 minute', TIMESTAMP '2026-01-02' + g * INTERVAL '1 minute' " +
+                "FROM generate_series(1, ?) g", CUSTOMERS, COMPANIES, CUSTOMERS, INVOICES);
+        jdbcTemplate.update("INSERT INTO payments (invoice_id, amount_received, payment_date) " +
+                "SELECT id, amount, due_date FROM invoices WHERE status = 'PAID'");
+        jdbcTemplate.update("INSERT INTO reminder_logs (invoice_id, reminder_type, channel, sent_date) " +
+                "SELECT i.id, 'GENTLE', 'EMAIL', i.due_date - n " +
+                "FROM invoices i CROSS JOIN generate_series(1, 2) n WHERE i.status IN ('PENDING', 'PAID')");
+        jdbcTemplate.update("INSERT INTO documents (company_id, invoice_id, original_file_name, stored_file_name, " +
+                "file_path, document_type, file_size) " +
+                "SELECT company_id, id, 'invoice-' || id || '.pdf', 'stored-' || id || '.pdf', " +
+                "'documents/' || id || '.pdf', CASE WHEN id % 400 = 0 THEN 'IMAGE' ELSE 'PDF' END, 1024 " +
+                "FROM invoices WHERE id % 4 = 0");
+        jdbcTemplate.update("INSERT INTO stored_files (company_id, content_hash, file_path, file_size) " +
+                "SELECT company_id, md5(id::text) || md5(id::text || '.pdf'), company_id || '/' || id || '.pdf', 1024 " +
+                "FROM invoices WHERE id % 2 = 0");
+        // Statistics and the visibility map, as autovacuum would leave them
+        jdbcTemplate.execute("VACUUM ANALYZE");
+
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Test
+    void dashboardMetrics() {
+        assertPlans(COMPANY_COST, Set.of(), () -> invoiceRepository.getDashboardMetricsByCompany(COMPANY_ID,
+                InvoiceStatus.PENDING, InvoiceStatus.PAID, TODAY, MONTH_START, MONTH_START.plusMonths(1)));
+    }
+
+    @Test
+    void remindersByStatus() {
+        assertPlans(UNBOUNDED, Set.of("customers"),
+                () -> invoiceRepository.findReminderDtosByStatus(InvoiceStatus.PENDING));
+    }
+
+    @Test
+    void reminderStreamByStatus() {
+        assertPlans(UNBOUNDED, Set.of("customers"), () -> {
+            try (Stream<InvoiceReminderDto> reminders = invoiceRepository.streamReminderDtosByStatus(InvoiceStatus.PENDING)) {
+                reminders.forEach(reminder -> { });
+            }
+        });
+    }
+
+    @Test
+    void reminderKeysetPages() {
+        assertPlans(COMPANY_COST, Set.of(), () -> invoiceRepository.findFirstReminderDtoPageByStatus(
+                InvoiceStatus.PENDING, PageRequest.ofSize(500)));
+        assertPlans(COMPANY_COST, Set.of(), () -> invoiceRepository.findReminderDtoPageByStatusAfter(
+                InvoiceStatus.PENDING, TODAY, INVOICE_ID, PageRequest.ofSize(500)));
+    }
+
+    @Test
+    void remindersByCompanyAndStatus() {
+        assertPlans(COMPANY_COST, Set.of(),
+                () -> invoiceRepository.findReminderDtosByCompanyIdAndStatus(COMPANY_ID, InvoiceStatus.PENDING));
+    }
+
+    @Test
+    void reminderByIdAndStatus() {
+        assertPlans(LOOKUP_COST, Set.of(),
+                () -> invoiceRepository.findReminderDtoByIdAndStatus(INVOICE_ID, InvoiceStatus.PENDING));
+    }
+
+    @Test
+    void existingIds() {
+        assertPlans(LOOKUP_COST, Set.of(),
+                () -> invoiceRepository.findExistingIds(List.of(INVOICE_ID, INVOICE_ID + 1, INVOICE_ID + 2)));
+    }
+
+    @Test
+    void invoicesByStatus() {
+        assertPlans(UNBOUNDED, Set.of(), () -> invoiceRepository.findByStatus(InvoiceStatus.DRAFT));
+    }
+
+    @Test
+    void companyInvoices() {
+        assertPlans(COMPANY_COST, Set.of(), () -> invoiceRepository.findByCompanyId(COMPANY_ID));
+        assertPlans(COMPANY_COST, Set.of(), () -> invoiceRepository.countByCompanyId(COMPANY_ID));
+    }
+
+    @Test
+    void invoiceWithRelationships() {
+        assertPlans(LOOKUP_COST, Set.of(), () -> invoiceRepository.findByIdWithRelationships(INVOICE_ID));
+    }
+
+    @Test
+    void companyInvoicesByStatus() {
+        assertPlans(COMPANY_COST, Set.of(),
+                () -> invoiceRepository.findByCompanyIdAndStatus(COMPANY_ID, InvoiceStatus.DRAFT));
+        assertPlans(COMPANY_COST, Set.of(),
+                () -> invoiceRepository.countByCompanyIdAndStatus(COMPANY_ID, InvoiceStatus.PENDING));
+    }
+
+    /**
+     * Page query and its COUNT, without filters, by status, and with a search pattern
+     */
+    @Test
+    void invoicePageWithCount() {
+        PageRequest firstPage = PageRequest.of(0, 20,
+                Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id")));
+
+        assertThat(assertPlans(COMPANY_COST, Set.of(),
+                () -> invoiceRepository.findPageByCompanyId(COMPANY_ID, null, null, firstPage))).hasSize(2);
+        assertThat(assertPlans(COMPANY_COST, Set.of(),
+                () -> invoiceRepository.findPageByCompanyId(COMPANY_ID, InvoiceStatus.PENDING, null, firstPage)))
+                .hasSize(2);
+        assertThat(assertPlans(COMPANY_COST, Set.of(),
+                () -> invoiceRepository.findPageByCompanyId(COMPANY_ID, null, SEARCH_PATTERN, firstPage)))
+                .hasSize(2);
+    }
+
+    @Test
+    void invoiceKeysetSlices() {
+        PageRequest slice = PageRequest.ofSize(20);
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 1, 0, 0).plusMinutes(INVOICE_ID);
+
+        assertPlans(COMPANY_COST, Set.of(),
+                () -> invoiceRepository.findFirstSliceByCompanyId(COMPANY_ID, null, null, slice));
+        assertPlans(COMPANY_COST, Set.of(),
+                () -> invoiceRepository.findFirstSliceByCompanyId(COMPANY_ID, InvoiceStatus.PAID, SEARCH_PATTERN, slice));
+        assertPlans(COMPANY_COST, Set.of(), () -> invoiceRepository.findSliceByCompanyIdAfter(
+                COMPANY_ID, null, null, createdAt, INVOICE_ID, slice));
+        assertPlans(COMPANY_COST, Set.of(), () -> invoiceRepository.findSliceByCompanyIdAfter(
+                COMPANY_ID, InvoiceStatus.PAID, SEARCH_PATTERN, createdAt, INVOICE_ID, slice));
+    }
+
+    @Test
+    void reminderLogs() {
+        assertPlans(LOOKUP_COST, Set.of(), () -> reminderLogRepository.findByInvoiceId(INVOICE_ID));
+        assertPlans(LOOKUP_COST, Set.of(),
+                () -> reminderLogRepository.findByInvoiceIdOrderBySentDateDesc(INVOICE_ID));
+        assertPlans(LOOKUP_COST, Set.of(),
+                () -> reminderLogRepository.findFirstByInvoiceIdOrderBySentDateDesc(INVOICE_ID));
+        assertPlans(UNBOUNDED, Set.of("reminder_logs"),
+                () -> reminderLogRepository.findLatestByInvoiceStatus(InvoiceStatus.PENDING));
+    }
+
+    @Test
+    void payments() {
+        assertPlans(LOOKUP_COST, Set.of(), () -> paymentRepository.findByInvoiceId(INVOICE_ID));
+        assertPlans(LOOKUP_COST, Set.of(),
+                () -> paymentRepository.findByInvoiceIdOrderByPaymentDateDesc(INVOICE_ID));
+        assertPlans(LOOKUP_COST, Set.of(),
+                () -> paymentRepository.getTotalAmountReceivedByInvoiceId(INVOICE_ID));
+    }
+
+    @Test
+    void documents() {
+        assertPlans(COMPANY_COST, Set.of(), () -> documentRepository.findByCompanyId(COMPANY_ID));
+        assertPlans(LOOKUP_COST, Set.of(), () -> documentRepository.findByInvoiceId(INVOICE_ID));
+        assertPlans(LOOKUP_COST, Set.of(),
+                () -> documentRepository.findByCompanyIdAndInvoiceId(COMPANY_ID, INVOICE_ID));
+        assertPlans(LOOKUP_COST, Set.of(), () -> documentRepository.findByStoredFileName("stored-100000.pdf"));
+        // 1% of documents are images
+        assertPlans(UNBOUNDED, Set.of(), () -> documentRepository.findByDocumentType(DocumentType.IMAGE));
+    }
+
+    @Test
+    void storedFilesByContentHash() {
+        List<String> contentHashes = jdbcTemplate.queryForList(
+                "SELECT content_hash FROM stored_files WHERE company_id = ? LIMIT 3", String.class, COMPANY_ID);
+
+        assertPlans(LOOKUP_COST, Set.of(),
+                () -> storedFileRepository.findByCompanyIdAndContentHashIn(COMPANY_ID, contentHashes));
+    }
+
+    /**
+     * Run a repository call in a read-only transaction and check the plan of every statement it executed
+     *
+     * @param costBudget Maximum total plan cost
+     * @param seqScanAllowed Tables a bulk query may legitimately read in full
+     * @param query Repository call
+     * @return Statements the call executed
+     */
+    private List<RecordedStatement> assertPlans(double costBudget, Set<String> seqScanAllowed, Runnable query) {
+        List<RecordedStatement> statements = statementRecorder.record(
+                () -> readOnlyTransaction.executeWithoutResult(status -> query.run()));
+        assertThat(statements).as("statements executed").isNotEmpty();
+
+        for (RecordedStatement statement : statements) {
+            JsonNode plan = explain(statement).path(0).path("Plan");
+
+            Set<String> seqScans = new TreeSet<>();
+            collectSeqScans(plan, seqScans);
+            seqScans.removeAll(seqScanAllowed);
+            seqScans.removeIf(table -> tableRows(table) < MIN_TABLE_ROWS);
+
+            assertThat(seqScans).as("sequential scans in %s%n%s", statement.sql(), plan.toPrettyString()).isEmpty();
+            assertThat(plan.path("Total Cost").asDouble())
+                    .as("total cost of %s%n%s", statement.sql(), plan.toPrettyString())
+                    .isLessThanOrEqualTo(costBudget);
+        }
+        return statements;
+    }
+
+    private JsonNode explain(RecordedStatement statement) {
+        return jdbcTemplate.execute((ConnectionCallback<JsonNode>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+                for (Binding binding : statement.bindings()) {
+                    binding.setter().invoke(explain, binding.args());
+                }
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    resultSet.next();
+                    return objectMapper.readTree(resultSet.getString(1));
+                }
+            } catch (ReflectiveOperationException | IOException e) {
+                throw new IllegalStateException("Could not explain " + statement.sql(), e);
+            }
+        });
+    }
+
+    private static void collectSeqScans(JsonNode node, Set<String> seqScans) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            seqScans.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, seqScans);
+        }
+    }
+
+    /**
+     * Planner row estimate for a table
+     * reltuples is -1 until the table is first vacuumed or analyzed, so count those rows instead
+     */
+    private double tableRows(String table) {
+        return tableRows.computeIfAbsent(table, name -> {
+            Double estimate = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE((SELECT reltuples FROM pg_class WHERE oid = to_regclass(?)), -1)",
+                    Double.class, name);
+            if (estimate != null && estimate >= 0) {
+                return estimate;
+            }
+            return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"" + name + "\"", Double.class);
+        });
+    }
+}
@@ -0,0 +1,105 @@
+package com.paymentrecovery.repository;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL and bound parameters of the statements executed through the DataSource
+ * Wraps the DataSource bean, so Hibernate and Spring Data run their real queries through it unchanged
+ */
+class StatementRecorder implements BeanPostProcessor {
+
+    /**
+     * One parameter setter call, replayed as-is on another statement
+     *
+     * @param setter PreparedStatement setter, e.g. setLong
+     * @param args Setter arguments, starting with the parameter index
+     */
+    record Binding(Method setter, Object[] args) {
+    }
+
+    /**
+     * SQL of an executed statement with the parameters it was executed with
+     */
+    record RecordedStatement(String sql, List<Binding> bindings) {
+    }
+
+    private final List<RecordedStatement> statements = new CopyOnWriteArrayList<>();
+    private volatile boolean recording;
+
+    /**
+     * Run an action and return the statements it executed
+     *
+     * @param action Repository call
+     * @return Executed statements, in order
+     */
+    List<RecordedStatement> record(Runnable action) {
+        statements.clear();
+        recording = true;
+        try {
+            action.run();
+        } finally {
+            recording = false;
+        }
+        return List.copyOf(statements);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean instanceof DataSource dataSource ? recording(dataSource) : bean;
+    }
+
+    private DataSource recording(DataSource dataSource) {
+        return proxy(DataSource.class, (proxy, method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            return result instanceof Connection connection ? recording(connection) : result;
+        });
+    }
+
+    private Connection recording(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof PreparedStatement statement && "prepareStatement".equals(method.getName())) {
+                return recording(statement, (String) args[0]);
+            }
+            return result;
+        });
+    }
+
+    private PreparedStatement recording(PreparedStatement statement, String sql) {
+        List<Binding> bindings = new ArrayList<>();
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length > 1 && args[0] instanceof Integer) {
+                bindings.add(new Binding(method, args.clone()));
+            } else if ("clearParameters".equals(name)) {
+                bindings.clear();
+            } else if (recording && (name.equals("executeQuery") || name.equals("execute")) && args == null) {
+                statements.add(new RecordedStatement(sql, List.copyOf(bindings)));
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(StatementRecorder.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.paymentrecovery.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymentrecovery.model.dto.request.ExtractedInvoiceDataBatchItem;
+import com.paymentrecovery.model.dto.response.ExtractedDataBatchItemResult;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Handling of batched extraction responses
+ * Extracted data comes back inline and must be stored before an item counts as done; load signals
+ * belong to the HTTP request, not to each of its items
+ */
+@ExtendWith(MockitoExtension.class)
+class InvoiceExtractionServiceTest {
+
+    @Mock
+    private CloseableHttpAsyncClient httpAsyncClient;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private InvoiceService invoiceService;
+
+    private InvoiceExtractionService extractionService;
+
+    @BeforeEach
+    void createService() {
+        // Runs the store step inline instead of on the completion executor
+        extractionService = new InvoiceExtractionService(httpAsyncClient, RequestConfig.DEFAULT,
+                new ObjectMapper().findAndRegisterModules(), taskScheduler, invoiceService, Runnable::run);
+        ReflectionTestUtils.setField(extractionService, "pythonServiceUrl", "http://localhost:8000");
+        ReflectionTestUtils.setField(extractionService, "extractionEndpoint", "/api/extract-invoices");
+        ReflectionTestUtils.setField(extractionService, "responseTimeoutMs", 30000L);
+        ReflectionTestUtils.setField(extractionService, "itemTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(extractionService, "maxBatchSize", 2);
+        ReflectionTestUtils.setField(extractionService, "lingerMs", 20L);
+    }
+
+    @Test
+    void acceptedItemsAreStoredBeforeCompleting() {
+        respond(200, """
+                {"results": [
+                  {"invoiceId": 1, "success": true, "extractedData": {"invoiceNumber": "INV-1"}},
+                  {"invoiceId": 2, "success": false, "error": "Unreadable file"}
+                ]}""");
+        when(invoiceService.storeExtractionResults(anyList())).thenReturn(List.of(
+                ExtractedDataBatchItemResult.builder().index(0).invoiceId(1L).stored(true).build()));
+
+        CompletableFuture<InvoiceExtractionService.ExtractionResult> first =
+                extractionService.requestExtraction(1L, "1/a.pdf");
+        CompletableFuture<InvoiceExtractionService.ExtractionResult> second =
+                extractionService.requestExtraction(2L, "1/b.pdf");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ExtractedInvoiceDataBatchItem>> items = ArgumentCaptor.forClass(List.class);
+        verify(invoiceService).storeExtractionResults(items.capture());
+        assertThat(items.getValue()).singleElement().satisfies(item -> {
+            assertThat(item.getInvoiceId()).isEqualTo(1L);
+            assertThat(item.getExtractedData().getInvoiceNumber()).isEqualTo("INV-1");
+        });
+
+        assertThat(first.join().error()).isNull();
+        assertThat(second.join().error()).isInstanceOf(ExtractionFailedException.class);
+        assertThat(second.join().batch()).isSameAs(first.join().batch());
+        assertThat(first.join().batch().getFailure()).isNull();
+    }
+
+    @Test
+    void itemNotStoredFails() {
+        respond(200, """
+                {"results": [
+                  {"invoiceId": 1, "success": true, "extractedData": {"invoiceNumber": "INV-1"}},
+                  {"invoiceId": 2, "success": true, "extractedData": {"invoiceNumber": "INV-2"}}
+                ]}""");
+        when(invoiceService.storeExtractionResults(anyList())).thenReturn(List.of(
+                ExtractedDataBatchItemResult.builder().index(0).invoiceId(1L).stored(true).build(),
+                ExtractedDataBatchItemResult.builder().index(1).invoiceId(2L).stored(false)
+                        .error("Invoice is not DRAFT").build()));
+
+        CompletableFuture<InvoiceExtractionService.ExtractionResult> first =
+                extractionService.requestExtraction(1L, "1/a.pdf");
+        CompletableFuture<InvoiceExtractionService.ExtractionResult> second =
+                extractionService.requestExtraction(2L, "1/b.pdf");
+
+        assertThat(first.join().error()).isNull();
+        assertThat(second.join().error()).hasMessage("Invoice is not DRAFT");
+    }
+
+    @Test
+    void failedRequestIsOneOutcome() {
+        respond(503, "");
+
+        InvoiceExtractionService.ExtractionResult first = extractionService.requestExtraction(1L, "1/a.pdf").join();
+        InvoiceExtractionService.ExtractionResult second = extractionService.requestExtraction(2L, "1/b.pdf").join();
+
+        assertThat(first.batch()).isSameAs(second.batch());
+        assertThat(first.batch().getSize()).isEqualTo(2);
+        assertThat(first.batch().getFailure()).isNotNull();
+        assertThat(first.batch().claim()).isTrue();
+        assertThat(second.batch().claim()).isFalse();
+        verifyNoInteractions(invoiceService);
+    }
+
+    @Test
+    void responseTimeoutGrowsWithBatch() {
+        respond(503, "");
+
+        extractionService.requestExtraction(1L, "1/a.pdf");
+        extractionService.requestExtraction(2L, "1/b.pdf");
+
+        ArgumentCaptor<SimpleHttpRequest> request = ArgumentCaptor.forClass(SimpleHttpRequest.class);
+        verify(httpAsyncClient).execute(request.capture(), any());
+        assertThat(request.getValue().getConfig().getResponseTimeout()).isEqualTo(Timeout.ofMilliseconds(35000));
+    }
+
+    /**
+     * Answer every request with the given status and body, on the calling thread
+     */
+    private void respond(int status, String body) {
+        doAnswer(invocation -> {
+            FutureCallback<SimpleHttpResponse> callback = invocation.getArgument(1);
+            callback.completed(SimpleHttpResponse.create(status, body, ContentType.APPLICATION_JSON));
+            return null;
+        }).when(httpAsyncClient).execute(any(SimpleHttpRequest.class), any());
+    }
+}
@@ -0,0 +1,131 @@
+package com.paymentrecovery.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymentrecovery.model.dto.request.ExtractedInvoiceDataBatchItem;
+import com.paymentrecovery.model.dto.request.ExtractedInvoiceDataRequest;
+import com.paymentrecovery.model.dto.response.ExtractedDataBatchItemResult;
+import com.paymentrecovery.model.entity.Company;
+import com.paymentrecovery.model.entity.Invoice;
+import com.paymentrecovery.model.enums.InvoiceStatus;
+import com.paymentrecovery.repository.InvoiceRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Extracted-data batches
+ * Every item gets a result in request order; callers can only store data on their own company's invoices,
+ * and only extractor output reaches the extraction cache
+ */
+@ExtendWith(MockitoExtension.class)
+class InvoiceServiceTest {
+
+    private static final Long COMPANY_ID = 1L;
+    private static final Long OTHER_COMPANY_ID = 2L;
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    @Mock
+    private ExtractionCacheService extractionCacheService;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private InvoiceService invoiceService;
+
+    @Test
+    void missingInvoicesAreReportedPerItem() {
+        Invoice draft = invoice(10L, COMPANY_ID, InvoiceStatus.DRAFT);
+        when(invoiceRepository.findAllById(anyIterable())).thenReturn(List.of(draft));
+
+        List<ExtractedDataBatchItemResult> results = invoiceService.storeExtractedDataBatch(
+                COMPANY_ID, Arrays.asList(item(10L), item(11L), null), 5);
+
+        assertThat(results).extracting(ExtractedDataBatchItemResult::getIndex).containsExactly(5, 6, 7);
+        assertThat(results).extracting(ExtractedDataBatchItemResult::getStored).containsExactly(true, false, false);
+        assertThat(results.get(1).getError()).isEqualTo("Invoice not found with ID: 11");
+        assertThat(results.get(2).getError()).isEqualTo("Malformed extracted data item");
+        assertThat(draft.getExtractedData()).isNotNull();
+    }
+
+    @Test
+    void invoicesOfOtherCompaniesAreNotFound() {
+        Invoice own = invoice(10L, COMPANY_ID, InvoiceStatus.DRAFT);
+        Invoice foreign = invoice(20L, OTHER_COMPANY_ID, InvoiceStatus.DRAFT);
+        when(invoiceRepository.findAllById(anyIterable())).thenReturn(List.of(own, foreign));
+
+        List<ExtractedDataBatchItemResult> results = invoiceService.storeExtractedDataBatch(
+                COMPANY_ID, List.of(item(10L), item(20L)), 0);
+
+        assertThat(results).extracting(ExtractedDataBatchItemResult::getStored).containsExactly(true, false);
+        assertThat(results.get(1).getError()).isEqualTo("Invoice not found with ID: 20");
+        assertThat(foreign.getExtractedData()).isNull();
+        verify(extractionCacheService, never()).storeAll(anyList());
+    }
+
+    @Test
+    void extractionResultsAreStoredForAnyCompany() {
+        Invoice first = invoice(10L, COMPANY_ID, InvoiceStatus.DRAFT);
+        Invoice second = invoice(20L, OTHER_COMPANY_ID, InvoiceStatus.DRAFT);
+        when(invoiceRepository.findAllById(anyIterable())).thenReturn(List.of(first, second));
+
+        List<ExtractedDataBatchItemResult> results = invoiceService.storeExtractionResults(
+                List.of(item(10L), item(20L)));
+
+        assertThat(results).extracting(ExtractedDataBatchItemResult::getStored).containsExactly(true, true);
+        verify(extractionCacheService).storeAll(List.of(first, second));
+    }
+
+    @Test
+    void nonDraftInvoicesAreRejected() {
+        when(invoiceRepository.findAllById(anyIterable()))
+                .thenReturn(List.of(invoice(10L, COMPANY_ID, InvoiceStatus.PENDING)));
+
+        List<ExtractedDataBatchItemResult> results = invoiceService.storeExtractedDataBatch(
+                COMPANY_ID, List.of(item(10L)), 0);
+
+        assertThat(results).singleElement().satisfies(result -> {
+            assertThat(result.getStored()).isFalse();
+            assertThat(result.getError()).startsWith("Can only store extracted data for DRAFT invoices");
+        });
+    }
+
+    private static ExtractedInvoiceDataBatchItem item(Long invoiceId) {
+        ExtractedInvoiceDataRequest data = new ExtractedInvoiceDataRequest();
+        data.setInvoiceNumber("INV-" + invoiceId);
+        return new ExtractedInvoiceDataBatchItem(invoiceId, data);
+    }
+
+    private static Invoice invoice(Long id, Long companyId, InvoiceStatus status) {
+        Company company = new Company();
+        company.setId(companyId);
+        Invoice invoice = new Invoice();
+        invoice.setId(id);
+        invoice.setCompany(company);
+        invoice.setStatus(status);
+        return invoice;
+    }
+}
@@ -0,0 +1,96 @@
+package com.paymentrecovery.service;
+
+import com.paymentrecovery.model.dto.response.DashboardMetricsDto;
+import com.paymentrecovery.model.entity.CompanyReceivablesSummary;
+import com.paymentrecovery.model.enums.InvoiceStatus;
+import com.paymentrecovery.repository.CompanyReceivablesSummaryRepository;
+import com.paymentrecovery.repository.InvoiceRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Day and month rollover of cached receivables summaries
+ * A summary is only served as-is for the day and month it was computed for
+ */
+@ExtendWith(MockitoExtension.class)
+class ReceivablesSummaryServiceTest {
+
+    private static final Long COMPANY_ID = 1L;
+
+    @Mock
+    private CompanyReceivablesSummaryRepository summaryRepository;
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    @InjectMocks
+    private ReceivablesSummaryService summaryService;
+
+    @Test
+    void currentSummaryIsNotRebuilt() {
+        LocalDate today = LocalDate.now();
+        CompanyReceivablesSummary summary = summary(today, today.withDayOfMonth(1));
+        when(summaryRepository.findById(COMPANY_ID)).thenReturn(Optional.of(summary));
+
+        assertThat(summaryService.getSummary(COMPANY_ID)).isSameAs(summary);
+        verifyNoInteractions(invoiceRepository);
+    }
+
+    @Test
+    void dayRolloverRecomputesOverdueFigures() {
+        LocalDate today = LocalDate.now();
+        CompanyReceivablesSummary summary = summary(today.minusDays(1), today.withDayOfMonth(1));
+        expectRebuild(summary, today, new DashboardMetricsDto(
+                2, 1, new BigDecimal("300.00"), 1, new BigDecimal("100.00"), new BigDecimal("50.00")));
+
+        CompanyReceivablesSummary result = summaryService.getSummary(COMPANY_ID);
+
+        assertThat(result.getOverdueAsOf()).isEqualTo(today);
+        assertThat(result.getOverdueInvoices()).isEqualTo(1);
+        assertThat(result.getOverdueAmount()).isEqualByComparingTo("100.00");
+        assertThat(result.getPendingInvoices()).isEqualTo(2);
+    }
+
+    @Test
+    void monthRolloverRestartsRecoveredAmount() {
+        LocalDate today = LocalDate.now();
+        CompanyReceivablesSummary summary = summary(today, today.withDayOfMonth(1).minusMonths(1));
+        summary.setMoneyRecoveredThisMonth(new BigDecimal("500.00"));
+        expectRebuild(summary, today, new DashboardMetricsDto(
+                0, 3, BigDecimal.ZERO, 0, BigDecimal.ZERO, BigDecimal.ZERO));
+
+        CompanyReceivablesSummary result = summaryService.getSummary(COMPANY_ID);
+
+        assertThat(result.getRecoveredMonth()).isEqualTo(today.withDayOfMonth(1));
+        assertThat(result.getMoneyRecoveredThisMonth()).isEqualByComparingTo("0");
+        assertThat(result.getPaidInvoices()).isEqualTo(3);
+    }
+
+    private void expectRebuild(CompanyReceivablesSummary summary, LocalDate today, DashboardMetricsDto totals) {
+        LocalDateTime startOfMonth = today.withDayOfMonth(1).atStartOfDay();
+        when(summaryRepository.findById(COMPANY_ID)).thenReturn(Optional.of(summary));
+        when(summaryRepository.findByIdForUpdate(COMPANY_ID)).thenReturn(Optional.of(summary));
+        when(invoiceRepository.getDashboardMetricsByCompany(COMPANY_ID, InvoiceStatus.PENDING, InvoiceStatus.PAID,
+                today, startOfMonth, startOfMonth.plusMonths(1))).thenReturn(totals);
+    }
+
+    private static CompanyReceivablesSummary summary(LocalDate overdueAsOf, LocalDate recoveredMonth) {
+        CompanyReceivablesSummary summary = new CompanyReceivablesSummary();
+        summary.setCompanyId(COMPANY_ID);
+        summary.setOverdueAsOf(overdueAsOf);
+        summary.setRecoveredMonth(recoveredMonth);
+        return summary;
+    }
+}
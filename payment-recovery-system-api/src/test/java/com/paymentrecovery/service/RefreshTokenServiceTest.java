@@ -0,0 +1,81 @@
+package com.paymentrecovery.service;
+
+import com.paymentrecovery.model.entity.RefreshToken;
+import com.paymentrecovery.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reuse detection of rotated refresh tokens
+ * A token presented again right after its rotation is a parallel refresh, later it is a copied token
+ */
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    private static final String FAMILY_ID = "family";
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setGraceWindow() {
+        ReflectionTestUtils.setField(refreshTokenService, "reuseGraceSeconds", 10L);
+    }
+
+    @Test
+    void reuseWithinGraceWindowKeepsFamily() {
+        RefreshToken token = token(LocalDateTime.now().minusSeconds(2));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(token));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("token")).hasMessage("Invalid refresh token");
+        verify(refreshTokenRepository, never()).revokeFamily(anyString(), any());
+    }
+
+    @Test
+    void reuseAfterGraceWindowRevokesFamily() {
+        RefreshToken token = token(LocalDateTime.now().minusMinutes(5));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(token));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("token")).hasMessage("Invalid refresh token");
+        verify(refreshTokenRepository).revokeFamily(eq(FAMILY_ID), any());
+    }
+
+    @Test
+    void lostRotationRaceKeepsFamily() {
+        RefreshToken token = token(null);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(token));
+        when(refreshTokenRepository.markUsed(any(), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("token")).hasMessage("Invalid refresh token");
+        verify(refreshTokenRepository, never()).revokeFamily(anyString(), any());
+    }
+
+    private static RefreshToken token(LocalDateTime usedAt) {
+        RefreshToken token = new RefreshToken();
+        token.setId(1L);
+        token.setUserId(2L);
+        token.setFamilyId(FAMILY_ID);
+        token.setExpiresAt(LocalDateTime.now().plusDays(1));
+        token.setUsedAt(usedAt);
+        return token;
+    }
+}
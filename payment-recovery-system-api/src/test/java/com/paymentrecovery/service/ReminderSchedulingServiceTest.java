@@ -0,0 +1,99 @@
+package com.paymentrecovery.service;
+
+import com.paymentrecovery.event.InvoiceChangedEvent;
+import com.paymentrecovery.event.ReminderLoggedEvent;
+import com.paymentrecovery.model.dto.response.DueReminderDto;
+import com.paymentrecovery.model.dto.response.InvoiceReminderDto;
+import com.paymentrecovery.model.entity.ReminderLog;
+import com.paymentrecovery.model.enums.InvoiceStatus;
+import com.paymentrecovery.model.enums.ReminderType;
+import com.paymentrecovery.repository.InvoiceRepository;
+import com.paymentrecovery.repository.ReminderLogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Rebuild of the reminder schedule
+ * Changes that arrive while the rebuild reads the database must survive the swap to the new schedule
+ */
+@ExtendWith(MockitoExtension.class)
+class ReminderSchedulingServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 6, 15);
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    @Mock
+    private ReminderLogRepository reminderLogRepository;
+
+    @InjectMocks
+    private ReminderSchedulingService schedulingService;
+
+    @Test
+    void rebuildScheduleHasDueGentleReminders() {
+        InvoiceReminderDto invoice = invoice(1L);
+        when(reminderLogRepository.findLatestByInvoiceStatus(InvoiceStatus.PENDING)).thenReturn(List.of());
+        when(invoiceRepository.streamReminderDtosByStatus(InvoiceStatus.PENDING)).thenReturn(Stream.of(invoice));
+
+        assertThat(schedulingService.rebuild(TODAY)).isEqualTo(1);
+        assertThat(schedulingService.getDueReminders(TODAY)).singleElement()
+                .extracting(DueReminderDto::getReminderType).isEqualTo(ReminderType.GENTLE);
+    }
+
+    @Test
+    void changesDuringRebuildAreNotLost() {
+        InvoiceReminderDto reminded = invoice(1L);
+        InvoiceReminderDto paid = invoice(2L);
+        when(reminderLogRepository.findLatestByInvoiceStatus(InvoiceStatus.PENDING)).thenReturn(List.of());
+        // Both changes commit after the rebuild read the reminder logs, while it reads the invoices
+        when(invoiceRepository.streamReminderDtosByStatus(InvoiceStatus.PENDING)).thenReturn(Stream.of(reminded, paid)
+                .peek(invoice -> {
+                    if (invoice == paid) {
+                        schedulingService.onReminderLogged(new ReminderLoggedEvent(1L, ReminderType.GENTLE));
+                        schedulingService.onInvoiceChanged(
+                                new InvoiceChangedEvent(2L, 1L, InvoiceStatus.PENDING, InvoiceStatus.PAID));
+                    }
+                }));
+        when(invoiceRepository.findReminderDtoByIdAndStatus(1L, InvoiceStatus.PENDING))
+                .thenReturn(Optional.of(reminded));
+        when(reminderLogRepository.findFirstByInvoiceIdOrderBySentDateDesc(1L))
+                .thenReturn(Optional.of(reminderLog(1L, ReminderType.GENTLE)));
+        when(invoiceRepository.findReminderDtoByIdAndStatus(2L, InvoiceStatus.PENDING)).thenReturn(Optional.empty());
+
+        assertThat(schedulingService.rebuild(TODAY)).isEqualTo(1);
+        // Invoice 1 waits for DUE on its due date; invoice 2 is no longer scheduled
+        assertThat(schedulingService.getDueReminders(TODAY)).isEmpty();
+        assertThat(schedulingService.getDueReminders(TODAY.plusDays(3))).singleElement().satisfies(reminder -> {
+            assertThat(reminder.getId()).isEqualTo(1L);
+            assertThat(reminder.getReminderType()).isEqualTo(ReminderType.DUE);
+        });
+    }
+
+    private static InvoiceReminderDto invoice(Long id) {
+        return InvoiceReminderDto.builder()
+                .id(id)
+                .invoiceNumber("INV-" + id)
+                .dueDate(TODAY.plusDays(3))
+                .companyId(1L)
+                .build();
+    }
+
+    private static ReminderLog reminderLog(Long invoiceId, ReminderType reminderType) {
+        ReminderLog reminderLog = new ReminderLog();
+        reminderLog.setInvoiceId(invoiceId);
+        reminderLog.setReminderType(reminderType);
+        return reminderLog;
+    }
+}
@@ -0,0 +1,67 @@
+package com.paymentrecovery.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency response of the AIMD limit
+ * Requests of very different cost must not read as congestion; a service that gets slower must
+ */
+class AimdConcurrencyLimitTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void spreadOfRequestCostsKeepsLimit() {
+        AimdConcurrencyLimit limit = new AimdConcurrencyLimit(8, 1, 64, 0.9, 2.0);
+        Random random = new Random(42);
+
+        for (int i = 0; i < 500; i++) {
+            round(limit, () -> (100 + random.nextInt(900)) * MILLIS);
+        }
+
+        assertThat(limit.getLimit()).isGreaterThanOrEqualTo(8);
+    }
+
+    @Test
+    void sustainedLatencyRiseLowersLimit() {
+        AimdConcurrencyLimit limit = new AimdConcurrencyLimit(16, 1, 64, 0.9, 2.0);
+        for (int i = 0; i < 50; i++) {
+            round(limit, () -> 100 * MILLIS);
+        }
+        int before = limit.getLimit();
+
+        for (int i = 0; i < 10; i++) {
+            round(limit, () -> 500 * MILLIS);
+        }
+
+        assertThat(limit.getLimit()).isLessThan(before);
+    }
+
+    @Test
+    void failuresLowerLimit() {
+        AimdConcurrencyLimit limit = new AimdConcurrencyLimit(16, 1, 64, 0.5, 2.0);
+        limit.tryAcquire();
+        limit.onDropped();
+
+        assertThat(limit.getLimit()).isEqualTo(8);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    /**
+     * Fill every free slot, then complete the requests with the given latencies
+     */
+    private static void round(AimdConcurrencyLimit limit, LongSupplier latencyNanos) {
+        int started = 0;
+        while (limit.tryAcquire()) {
+            started++;
+        }
+        for (int i = 0; i < started; i++) {
+            limit.onSuccess(latencyNanos.getAsLong());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.paymentrecovery.util;
+
+import com.paymentrecovery.model.enums.DocumentType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * Document type detection
+ * The type declared by Content-Type, or by the file name when the Content-Type is unknown, only counts
+ * when the content agrees with it
+ */
+class DocumentTypeDetectorTest {
+
+    private final DocumentTypeDetector detector = new DocumentTypeDetector(new FileSignatureDetector());
+
+    static Stream<Arguments> uploads() {
+        return Stream.of(
+                arguments("contract.pdf", "application/pdf", FileSamples.PDF, DocumentType.PDF),
+                arguments("receipt.png", "image/png", FileSamples.PNG, DocumentType.IMAGE),
+                arguments("receipt.jpg", "image/jpeg", FileSamples.JPEG, DocumentType.IMAGE),
+                arguments("receipt.gif", "image/gif", FileSamples.GIF87, DocumentType.IMAGE),
+                arguments("receipt.webp", "image/webp", FileSamples.WEBP, DocumentType.IMAGE),
+                arguments("letter.doc", "application/msword", FileSamples.OLE2, DocumentType.DOC),
+                arguments("letter.docx",
+                        "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+                        FileSamples.ZIP, DocumentType.DOC),
+                arguments("ledger.xls", "application/vnd.ms-excel", FileSamples.OLE2, DocumentType.EXCEL),
+                arguments("ledger.xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                        FileSamples.ZIP, DocumentType.EXCEL),
+                // Unknown or missing Content-Type: the extension decides
+                arguments("receipt.bmp", null, FileSamples.BMP, DocumentType.IMAGE),
+                arguments("ledger.XLSX", "application/octet-stream", FileSamples.ZIP, DocumentType.EXCEL),
+                arguments("letter.doc", null, FileSamples.OLE2, DocumentType.DOC),
+                // Mislabelled Content-Type
+                arguments("contract.pdf", "application/pdf", FileSamples.PNG, DocumentType.OTHER),
+                arguments("receipt.png", "image/png", FileSamples.CSV, DocumentType.OTHER),
+                arguments("letter.doc", "application/msword", FileSamples.PDF, DocumentType.OTHER),
+                // Mislabelled extension
+                arguments("contract.pdf", null, FileSamples.CSV, DocumentType.OTHER),
+                arguments("ledger.xlsx", "application/octet-stream", FileSamples.JPEG, DocumentType.OTHER),
+                // Not a document type at all
+                arguments("notes.csv", "text/csv", FileSamples.CSV, DocumentType.OTHER),
+                arguments("contract", null, FileSamples.PDF, DocumentType.OTHER),
+                arguments("contract.pdf", "application/pdf", new byte[0], DocumentType.OTHER)
+        );
+    }
+
+    @ParameterizedTest(name = "{0} ({1})")
+    @MethodSource("uploads")
+    void declaredTypeMustMatchContent(String fileName, String contentType, byte[] content, DocumentType expected) {
+        MockMultipartFile file = new MockMultipartFile("file", fileName, contentType, content);
+
+        assertThat(detector.detectDocumentType(file)).isEqualTo(expected);
+    }
+
+    @Test
+    void onlyDetectedTypesAreAllowed() {
+        assertThat(detector.isAllowedFileType(
+                new MockMultipartFile("file", "contract.pdf", "application/pdf", FileSamples.PDF))).isTrue();
+        assertThat(detector.isAllowedFileType(
+                new MockMultipartFile("file", "contract.pdf", "application/pdf", FileSamples.ZIP))).isFalse();
+    }
+}
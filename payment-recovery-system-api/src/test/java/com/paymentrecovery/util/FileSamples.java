@@ -0,0 +1,36 @@
+package com.paymentrecovery.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Leading bytes of files in each supported format
+ * Only the header matters to the detectors, so each sample is just long enough for its signature
+ */
+final class FileSamples {
+
+    static final byte[] PDF = ascii("%PDF-1.7\n%");
+    static final byte[] PNG = bytes(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 0x0D, 'I', 'H', 'D', 'R');
+    static final byte[] JPEG = bytes(0xFF, 0xD8, 0xFF, 0xE0, 0, 0x10, 'J', 'F', 'I', 'F', 0);
+    static final byte[] GIF87 = ascii("GIF87a");
+    static final byte[] GIF89 = ascii("GIF89a");
+    static final byte[] WEBP = bytes('R', 'I', 'F', 'F', 0x24, 0x08, 0, 0, 'W', 'E', 'B', 'P', 'V', 'P', '8', ' ');
+    static final byte[] BMP = bytes('B', 'M', 0x36, 0x0C, 0, 0, 0, 0, 0, 0, 0x36, 0, 0, 0);
+    static final byte[] OLE2 = bytes(0xD0, 0xCF, 0x11, 0xE0, 0xA1, 0xB1, 0x1A, 0xE1, 0, 0, 0, 0, 0, 0, 0, 0);
+    static final byte[] ZIP = bytes('P', 'K', 0x03, 0x04, 0x14, 0, 0x06, 0, 0x08, 0);
+    static final byte[] CSV = ascii("invoice,amount\r\nINV-1,100\n");
+
+    private FileSamples() {
+    }
+
+    static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,82 @@
+package com.paymentrecovery.util;
+
+import com.paymentrecovery.util.FileSignatureDetector.FileFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static com.paymentrecovery.util.FileSamples.ascii;
+import static com.paymentrecovery.util.FileSamples.bytes;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * Format detection from leading bytes
+ * Every signature is recognized, printable content without one is TEXT, and a header too short for a
+ * signature never matches it
+ */
+class FileSignatureDetectorTest {
+
+    private final FileSignatureDetector detector = new FileSignatureDetector();
+
+    static Stream<Arguments> headers() {
+        return Stream.of(
+                arguments("pdf", FileSamples.PDF, FileFormat.PDF),
+                arguments("png", FileSamples.PNG, FileFormat.PNG),
+                arguments("jpeg", FileSamples.JPEG, FileFormat.JPEG),
+                arguments("gif87a", FileSamples.GIF87, FileFormat.GIF),
+                arguments("gif89a", FileSamples.GIF89, FileFormat.GIF),
+                arguments("webp", FileSamples.WEBP, FileFormat.WEBP),
+                arguments("bmp", FileSamples.BMP, FileFormat.BMP),
+                arguments("ole2", FileSamples.OLE2, FileFormat.OLE2),
+                arguments("zip", FileSamples.ZIP, FileFormat.ZIP),
+                arguments("csv", FileSamples.CSV, FileFormat.TEXT),
+                arguments("utf-8 text", "Café,Zürich\n".getBytes(StandardCharsets.UTF_8), FileFormat.TEXT),
+                arguments("text starting with BM", ascii("BMW,invoice,100"), FileFormat.TEXT),
+                arguments("riff without webp", ascii("RIFF1234WAVEfmt "), FileFormat.TEXT),
+                arguments("control bytes", bytes('a', 'b', 0x00, 'c'), FileFormat.UNKNOWN),
+                arguments("delete byte", bytes('a', 0x7F, 'b'), FileFormat.UNKNOWN),
+                arguments("empty", new byte[0], FileFormat.UNKNOWN),
+                arguments("truncated pdf", ascii("%PDF"), FileFormat.TEXT),
+                arguments("truncated png", Arrays.copyOf(FileSamples.PNG, 7), FileFormat.UNKNOWN),
+                arguments("truncated jpeg", Arrays.copyOf(FileSamples.JPEG, 2), FileFormat.TEXT),
+                arguments("truncated ole2", Arrays.copyOf(FileSamples.OLE2, 4), FileFormat.UNKNOWN),
+                arguments("truncated zip", Arrays.copyOf(FileSamples.ZIP, 3), FileFormat.UNKNOWN),
+                arguments("truncated webp", Arrays.copyOf(FileSamples.WEBP, 11), FileFormat.UNKNOWN),
+                arguments("truncated bmp", Arrays.copyOf(FileSamples.BMP, 9), FileFormat.UNKNOWN)
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("headers")
+    void detectsFormatFromHeader(String description, byte[] header, FileFormat expected) {
+        assertThat(detector.detect(header, header.length)).isEqualTo(expected);
+    }
+
+    @Test
+    void bytesPastLengthAreIgnored() {
+        byte[] buffer = Arrays.copyOf(FileSamples.PDF, FileSignatureDetector.HEADER_LENGTH);
+
+        assertThat(detector.detect(buffer, 4)).isEqualTo(FileFormat.TEXT);
+    }
+
+    @Test
+    void uploadIsDetectedFromItsFirstBytes() {
+        byte[] content = Arrays.copyOf(FileSamples.PDF, 4096);
+
+        assertThat(detector.detect(new MockMultipartFile("file", "invoice.pdf", "application/pdf", content)))
+                .isEqualTo(FileFormat.PDF);
+    }
+
+    @Test
+    void emptyUploadIsUnknown() {
+        assertThat(detector.detect(new MockMultipartFile("file", "invoice.pdf", "application/pdf", new byte[0])))
+                .isEqualTo(FileFormat.UNKNOWN);
+    }
+}
@@ -0,0 +1,70 @@
+package com.paymentrecovery.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * Invoice upload type validation
+ * The extension, or the Content-Type when there is no known extension, must match the sniffed content
+ */
+class InvoiceFileTypeValidatorTest {
+
+    private final InvoiceFileTypeValidator validator = new InvoiceFileTypeValidator(new FileSignatureDetector());
+
+    static Stream<Arguments> uploads() {
+        return Stream.of(
+                arguments("invoice.pdf", "application/pdf", FileSamples.PDF, true),
+                arguments("INVOICE.PDF", "application/pdf", FileSamples.PDF, true),
+                arguments("scan.png", "image/png", FileSamples.PNG, true),
+                arguments("scan.jpg", "image/jpeg", FileSamples.JPEG, true),
+                arguments("scan.jpeg", "image/jpeg", FileSamples.JPEG, true),
+                arguments("invoice.doc", "application/msword", FileSamples.OLE2, true),
+                arguments("invoice.docx", null, FileSamples.ZIP, true),
+                arguments("invoice.xls", "application/vnd.ms-excel", FileSamples.OLE2, true),
+                arguments("invoice.xlsx", "application/octet-stream", FileSamples.ZIP, true),
+                arguments("invoices.csv", "text/plain", FileSamples.CSV, true),
+                // No known extension: the Content-Type decides
+                arguments("invoice", "application/pdf", FileSamples.PDF, true),
+                arguments("invoice", "application/vnd.ms-excel", FileSamples.CSV, true),
+                arguments("invoice", "TEXT/CSV", FileSamples.CSV, true),
+                // Mislabelled extension
+                arguments("invoice.pdf", "application/pdf", FileSamples.PNG, false),
+                arguments("invoice.docx", "application/pdf", FileSamples.PDF, false),
+                arguments("invoices.csv", "text/csv", FileSamples.ZIP, false),
+                arguments("scan.jpg", "image/jpeg", FileSamples.PNG, false),
+                // Mislabelled Content-Type
+                arguments("invoice", "application/pdf", FileSamples.PNG, false),
+                arguments("invoice", "text/csv", FileSamples.OLE2, false),
+                // Not allowed at all
+                arguments("scan.gif", "image/gif", FileSamples.GIF89, false),
+                arguments("invoice", null, FileSamples.PDF, false),
+                arguments("invoice.pdf", "application/pdf", new byte[0], false)
+        );
+    }
+
+    @ParameterizedTest(name = "{0} ({1})")
+    @MethodSource("uploads")
+    void declaredTypeMustMatchContent(String fileName, String contentType, byte[] content, boolean valid) {
+        MockMultipartFile file = new MockMultipartFile("file", fileName, contentType, content);
+
+        assertThat(validator.isValidFileType(file)).isEqualTo(valid);
+    }
+
+    @Test
+    void nullFileIsInvalid() {
+        assertThat(validator.isValidFileType(null)).isFalse();
+    }
+
+    @Test
+    void allowedFileTypesListsEveryExtension() {
+        assertThat(validator.getAllowedFileTypes()).isEqualTo("csv, doc, docx, jpeg, jpg, pdf, png, xls, xlsx");
+    }
+}
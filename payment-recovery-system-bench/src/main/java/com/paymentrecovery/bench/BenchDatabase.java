@@ -0,0 +1,145 @@
+package com.paymentrecovery.bench;
+
+import com.paymentrecovery.config.TableSequenceNamingStrategy;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.hibernate.boot.model.naming.ImplicitNamingStrategyLegacyJpaImpl;
+import org.hibernate.boot.model.naming.PhysicalNamingStrategyStandardImpl;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import jakarta.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Spring context over a dedicated PostgreSQL database, for benchmarks of repository and service code
+ * Connects to -Dbench.jdbc-url as -Dbench.jdbc-user / -Dbench.jdbc-password, then cleans the database
+ * and migrates it with the API's Flyway scripts: never point it at a database whose data you want to keep
+ * JPA is set up as in application.properties: pooled-lo sequences, JDBC batching and auditing
+ */
+@Configuration
+@EnableJpaRepositories(basePackages = "com.paymentrecovery.repository")
+@EnableJpaAuditing
+@EnableTransactionManagement
+public class BenchDatabase {
+
+    private static final String DEFAULT_JDBC_URL =
+            "jdbc:postgresql://localhost:5432/payment_recovery_bench?reWriteBatchedInserts=true";
+
+    /**
+     * Same as spring.jpa.properties.hibernate.jdbc.batch_size
+     */
+    private static final int JDBC_BATCH_SIZE = 20;
+
+    /**
+     * Start a context with the database beans and the given services
+     *
+     * @param components Service classes to register, e.g. ReminderLogService
+     * @return Refreshed context; close it in the trial tear-down
+     */
+    public static AnnotationConfigApplicationContext start(Class<?>... components) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.register(BenchDatabase.class);
+        if (components.length > 0) {
+            context.register(components);
+        }
+        context.refresh();
+        return context;
+    }
+
+    /**
+     * Insert one company, its customers and PENDING invoices with extracted data
+     * Invoice IDs run from 1 to the given count
+     *
+     * @param jdbcTemplate JDBC template of the bench database
+     * @param invoices Number of invoices
+     */
+    public static void seedInvoices(JdbcTemplate jdbcTemplate, int invoices) {
+        jdbcTemplate.update("INSERT INTO companies (id, name, gst_number, is_active, is_approved) " +
+                "VALUES (1, 'Acme Traders Pvt Ltd', '29ABCDE1234F1Z5', true, true)");
+        jdbcTemplate.update("INSERT INTO customers (id, company_id, customer_name, email, phone, payment_terms_days) " +
+                "SELECT g, 1, 'Customer ' || g, 'customer' || g || '@example.com', " +
+                "'+9198765' || LPAD(g::TEXT, 5, '0'), 30 FROM generate_series(1, 1000) g");
+        jdbcTemplate.update("INSERT INTO invoices (id, company_id, customer_id, invoice_number, invoice_date, " +
+                "due_date, amount, file_path, extracted_data, status) " +
+                "SELECT g, 1, 1 + g % 1000, 'INV-2026-' || g, DATE '2026-01-01' + g % 300, " +
+                "DATE '2026-01-31' + g % 300, 1000 + g % 5000, '1/ab/' || g || '.pdf', " +
+                "jsonb_build_object('invoiceNumber', 'INV-2026-' || g, 'amount', 1000 + g % 5000, " +
+                "'customerName', 'Customer ' || (1 + g % 1000), 'confidence', 0.93, " +
+                "'lineItems', jsonb_build_array(jsonb_build_object('description', 'Consulting', " +
+                "'amount', 1000 + g % 5000))), 'PENDING' " +
+                "FROM generate_series(1, ?) g", invoices);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource dataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(System.getProperty("bench.jdbc-url", DEFAULT_JDBC_URL));
+        dataSource.setUsername(System.getProperty("bench.jdbc-user", "postgres"));
+        dataSource.setPassword(System.getProperty("bench.jdbc-password", "admin"));
+        dataSource.setMaximumPoolSize(4);
+
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .cleanDisabled(false)
+                .load();
+        flyway.clean();
+        flyway.migrate();
+        return dataSource;
+    }
+
+    @Bean
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource,
+                                                                       ConfigurableListableBeanFactory beanFactory) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AvailableSettings.HBM2DDL_AUTO, "none");
+        properties.put(AvailableSettings.PHYSICAL_NAMING_STRATEGY, PhysicalNamingStrategyStandardImpl.class.getName());
+        properties.put(AvailableSettings.IMPLICIT_NAMING_STRATEGY, ImplicitNamingStrategyLegacyJpaImpl.class.getName());
+        properties.put(AvailableSettings.ID_DB_STRUCTURE_NAMING_STRATEGY, TableSequenceNamingStrategy.class.getName());
+        properties.put(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo");
+        properties.put(AvailableSettings.STATEMENT_BATCH_SIZE, JDBC_BATCH_SIZE);
+        properties.put(AvailableSettings.ORDER_INSERTS, true);
+        properties.put(AvailableSettings.ORDER_UPDATES, true);
+        // Lets Hibernate use the auditing listener configured by @EnableJpaAuditing
+        properties.put(AvailableSettings.BEAN_CONTAINER, new SpringBeanContainer(beanFactory));
+
+        LocalContainerEntityManagerFactoryBean entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
+        entityManagerFactory.setPackagesToScan("com.paymentrecovery.model.entity");
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setJpaPropertyMap(properties);
+        return entityManagerFactory;
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Bean
+    public LocalValidatorFactoryBean validator() {
+        return new LocalValidatorFactoryBean();
+    }
+}
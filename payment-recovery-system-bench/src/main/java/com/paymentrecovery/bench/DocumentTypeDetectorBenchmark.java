@@ -0,0 +1,74 @@
+package com.paymentrecovery.bench;
+
+import com.paymentrecovery.model.enums.DocumentType;
+import com.paymentrecovery.util.DocumentTypeDetector;
+import com.paymentrecovery.util.FileSignatureDetector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Document type detection on upload, by declared content type and by file name fallback
+ * The declared type is checked against the file's first bytes, for content that matches it and for
+ * mislabelled content
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocumentTypeDetectorBenchmark {
+
+    @Param({"application/pdf", "image/png", "application/octet-stream", ""})
+    private String contentType;
+
+    @Param({"true", "false"})
+    private boolean mislabelled;
+
+    private DocumentTypeDetector detector;
+    private MockMultipartFile file;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        detector = new DocumentTypeDetector(new FileSignatureDetector());
+        // An empty parameter means no declared content type, which exercises the file-name fallback
+        file = new MockMultipartFile("file", "invoice-2026-0001.pdf",
+                contentType.isEmpty() ? null : contentType, content());
+    }
+
+    /**
+     * Content in the declared format (PNG for image/png, PDF otherwise), or ZIP content when mislabelled
+     */
+    private byte[] content() {
+        byte[] content = new byte[64 * 1024];
+        byte[] header;
+        if (mislabelled) {
+            header = new byte[]{'P', 'K', 3, 4};
+        } else if (contentType.equals("image/png")) {
+            header = new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+        } else {
+            header = "%PDF-1.7\n".getBytes(StandardCharsets.US_ASCII);
+        }
+        System.arraycopy(header, 0, content, 0, header.length);
+        return content;
+    }
+
+    @Benchmark
+    public DocumentType detectDocumentType() {
+        return detector.detectDocumentType(file);
+    }
+}
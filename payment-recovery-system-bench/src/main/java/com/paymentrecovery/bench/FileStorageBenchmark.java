@@ -0,0 +1,75 @@
+package com.paymentrecovery.bench;
+
+import com.paymentrecovery.util.FileStorageUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upload storage cost without disk latency
+ * Files are written under -Dbench.upload-root (default /dev/shm, a tmpfs on Linux)
+ * and deleted after each iteration
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileStorageBenchmark {
+
+    @Param({"65536", "2097152"})
+    private int fileSize;
+
+    private Path uploadDir;
+    private FileStorageUtil fileStorageUtil;
+    private MockMultipartFile file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path root = Paths.get(System.getProperty("bench.upload-root", "/dev/shm"));
+        uploadDir = Files.createTempDirectory(root, "payment-recovery-bench-");
+        fileStorageUtil = new FileStorageUtil();
+        ReflectionTestUtils.setField(fileStorageUtil, "uploadDir", uploadDir.toString());
+
+        byte[] content = new byte[fileSize];
+        new Random(42).nextBytes(content);
+        file = new MockMultipartFile("file", "invoice.pdf", "application/pdf", content);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearUploads() throws IOException {
+        FileSystemUtils.deleteRecursively(uploadDir);
+        Files.createDirectories(uploadDir);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(uploadDir);
+    }
+
+    @Benchmark
+    public String storeFile() throws IOException {
+        return fileStorageUtil.storeFile(file, 1L);
+    }
+}
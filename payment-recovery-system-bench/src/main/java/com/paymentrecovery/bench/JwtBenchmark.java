@@ -0,0 +1,106 @@
+package com.paymentrecovery.bench;
+
+import com.paymentrecovery.security.jwt.JwtAuthenticationFilter;
+import com.paymentrecovery.security.jwt.JwtTokenProvider;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT verification cost paid by every authenticated request
+ * Covers the token provider calls and the whole authentication filter
+ * The same token is verified over and over, so these measure verified-token cache hits;
+ * validateTokenCold measures a token seen for the first time (HMAC check and JSON parse)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+    private JwtAuthenticationFilter filter;
+    private String token;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
+                "benchmark-secret-key-with-at-least-thirty-two-characters");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", 86400000L);
+        tokenProvider.init();
+        filter = new JwtAuthenticationFilter(tokenProvider);
+        token = tokenProvider.generateToken("bench-user", "COMPANY", 42L);
+
+        request = new MockHttpServletRequest("GET", "/api/company/invoices");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    /**
+     * A token the provider has not verified yet, issued before each invocation
+     * Level.Invocation fixtures add timer overhead, which is small next to an HMAC check and JSON parse
+     */
+    @State(Scope.Thread)
+    public static class ColdToken {
+
+        private long issued;
+        private String token;
+
+        @Setup(Level.Invocation)
+        public void issue(JwtBenchmark benchmark) {
+            token = benchmark.tokenProvider.generateToken("bench-user-" + issued++, "COMPANY", 42L);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Boolean validateTokenCold(ColdToken coldToken) {
+        return tokenProvider.validateToken(coldToken.token);
+    }
+
+    @Benchmark
+    public Long getCompanyIdFromToken() {
+        return tokenProvider.getCompanyIdFromToken(token);
+    }
+
+    /**
+     * Full filter pass: header extraction, validation, claim reads and security context setup
+     */
+    @Benchmark
+    public Object authenticationFilter() throws ServletException, IOException {
+        filter.doFilter(request, response, new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,96 @@
+package com.paymentrecovery.bench;
+
+import com.paymentrecovery.model.dto.request.CreateReminderLogRequest;
+import com.paymentrecovery.model.enums.ReminderChannel;
+import com.paymentrecovery.model.enums.ReminderType;
+import com.paymentrecovery.service.ReminderLogService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reminder-log ingestion throughput: one transaction and insert per log (POST /api/reminders/log)
+ * versus one chunk of the batch endpoint, persisted with JDBC batch inserts (POST /api/reminders/log/batch)
+ * Both report logs per second; HTTP handling is not included
+ * Needs a PostgreSQL database, see BenchDatabase
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReminderLogBatchBenchmark {
+
+    /**
+     * Logs per operation; same as the default app.reminders.log-batch.chunk-size
+     */
+    private static final int LOGS = 1000;
+
+    private static final int INVOICES = 1000;
+
+    private AnnotationConfigApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private ReminderLogService reminderLogService;
+    private List<CreateReminderLogRequest> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchDatabase.start(ReminderLogService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchDatabase.seedInvoices(jdbcTemplate, INVOICES);
+        reminderLogService = context.getBean(ReminderLogService.class);
+
+        ReminderType[] types = ReminderType.values();
+        ReminderChannel[] channels = ReminderChannel.values();
+        requests = new ArrayList<>(LOGS);
+        for (int i = 0; i < LOGS; i++) {
+            requests.add(new CreateReminderLogRequest(1L + i % INVOICES, types[i % types.length],
+                    channels[i % channels.length]));
+        }
+    }
+
+    /**
+     * Keep the table the same size in every iteration
+     */
+    @TearDown(Level.Iteration)
+    public void clearReminderLogs() {
+        jdbcTemplate.execute("TRUNCATE reminder_logs");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOGS)
+    public void singleItem(Blackhole blackhole) {
+        for (CreateReminderLogRequest request : requests) {
+            blackhole.consume(reminderLogService.createReminderLog(request));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOGS)
+    public void batch(Blackhole blackhole) {
+        blackhole.consume(reminderLogService.createReminderLogs(requests, 0));
+    }
+}
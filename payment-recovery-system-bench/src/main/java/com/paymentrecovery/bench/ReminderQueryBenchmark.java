@@ -0,0 +1,120 @@
+package com.paymentrecovery.bench;
+
+import com.paymentrecovery.model.dto.response.InvoiceReminderDto;
+import com.paymentrecovery.model.entity.Invoice;
+import com.paymentrecovery.model.enums.InvoiceStatus;
+import com.paymentrecovery.repository.InvoiceRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Reading all PENDING invoices for reminders: entity fetch mapped to DTOs (the query the
+ * constructor-expression projection replaced) versus the DTO projection, as a list and as a cursor stream
+ * One operation reads every row, so with -prof gc, gc.alloc.rate.norm is the allocation per {@code rows} rows
+ * Needs a PostgreSQL database, see BenchDatabase
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReminderQueryBenchmark {
+
+    /**
+     * Entity fetch used for reminders before the DTO projection
+     */
+    private static final String ENTITY_FETCH_QUERY = "SELECT i FROM Invoice i " +
+            "LEFT JOIN FETCH i.customer c " +
+            "JOIN FETCH i.company " +
+            "WHERE i.status = :status " +
+            "ORDER BY i.dueDate ASC";
+
+    @Param({"100000"})
+    private int rows;
+
+    private AnnotationConfigApplicationContext context;
+    private InvoiceRepository invoiceRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchDatabase.start();
+        BenchDatabase.seedInvoices(context.getBean(JdbcTemplate.class), rows);
+
+        invoiceRepository = context.getBean(InvoiceRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        // The reminder endpoints read in read-only transactions, which skip dirty-checking snapshots
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<InvoiceReminderDto> entityFetchMappedToDtos() {
+        return readOnlyTransaction.execute(status -> entityManager
+                .createQuery(ENTITY_FETCH_QUERY, Invoice.class)
+                .setParameter("status", InvoiceStatus.PENDING)
+                .getResultList()
+                .stream()
+                .map(ReminderQueryBenchmark::mapToReminderDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<InvoiceReminderDto> dtoProjection() {
+        return readOnlyTransaction.execute(status -> invoiceRepository.findReminderDtosByStatus(InvoiceStatus.PENDING));
+    }
+
+    @Benchmark
+    public void dtoProjectionStream(Blackhole blackhole) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<InvoiceReminderDto> invoices = invoiceRepository.streamReminderDtosByStatus(InvoiceStatus.PENDING)) {
+                Iterator<InvoiceReminderDto> iterator = invoices.iterator();
+                while (iterator.hasNext()) {
+                    blackhole.consume(iterator.next());
+                }
+            }
+        });
+    }
+
+    private static InvoiceReminderDto mapToReminderDto(Invoice invoice) {
+        return InvoiceReminderDto.builder()
+                .id(invoice.getId())
+                .invoiceNumber(invoice.getInvoiceNumber())
+                .dueDate(invoice.getDueDate())
+                .amount(invoice.getAmount())
+                .companyId(invoice.getCompany().getId())
+                .customerName(invoice.getCustomer() != null ? invoice.getCustomer().getCustomerName() : null)
+                .customerEmail(invoice.getCustomer() != null ? invoice.getCustomer().getEmail() : null)
+                .customerPhone(invoice.getCustomer() != null ? invoice.getCustomer().getPhone() : null)
+                .build();
+    }
+}
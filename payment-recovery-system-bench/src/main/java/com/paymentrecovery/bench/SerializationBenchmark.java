@@ -0,0 +1,127 @@
+package com.paymentrecovery.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.paymentrecovery.model.dto.response.InvoiceReminderDto;
+import com.paymentrecovery.model.entity.Company;
+import com.paymentrecovery.model.entity.Customer;
+import com.paymentrecovery.model.entity.Invoice;
+import com.paymentrecovery.model.enums.InvoiceStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization: Invoice entities (with company, customer and extracted data)
+ * versus the reminder DTO, as a JSON array and as NDJSON lines
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Invoice> invoices;
+    private List<InvoiceReminderDto> reminderDtos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+        Company company = new Company();
+        company.setId(1L);
+        company.setName("Acme Traders Pvt Ltd");
+        company.setGstNumber("29ABCDE1234F1Z5");
+        company.setContactEmail("accounts@acme.example");
+
+        invoices = new ArrayList<>(size);
+        reminderDtos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Customer customer = new Customer();
+            customer.setId((long) i);
+            customer.setCompany(company);
+            customer.setCustomerName("Customer " + i);
+            customer.setEmail("customer" + i + "@example.com");
+            customer.setPhone("+9198765" + String.format("%05d", i));
+
+            Invoice invoice = new Invoice();
+            invoice.setId((long) i);
+            invoice.setCompany(company);
+            invoice.setCustomer(customer);
+            invoice.setInvoiceNumber("INV-2026-" + i);
+            invoice.setInvoiceDate(LocalDate.of(2026, 1, 1).plusDays(i % 300));
+            invoice.setDueDate(invoice.getInvoiceDate().plusDays(30));
+            invoice.setAmount(BigDecimal.valueOf(1000 + i, 2));
+            invoice.setFilePath("1/2026/01/01/" + i + ".pdf");
+            invoice.setExtractedData(extractedData(invoice));
+            invoice.setStatus(InvoiceStatus.PENDING);
+            invoice.setCreatedAt(LocalDateTime.of(2026, 1, 1, 9, 0));
+            invoices.add(invoice);
+
+            reminderDtos.add(new InvoiceReminderDto(invoice.getId(), invoice.getInvoiceNumber(),
+                    invoice.getDueDate(), invoice.getAmount(), company.getId(),
+                    customer.getCustomerName(), customer.getEmail(), customer.getPhone()));
+        }
+    }
+
+    private ObjectNode extractedData(Invoice invoice) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("invoiceNumber", invoice.getInvoiceNumber());
+        node.put("invoiceDate", invoice.getInvoiceDate().toString());
+        node.put("dueDate", invoice.getDueDate().toString());
+        node.put("amount", invoice.getAmount());
+        node.put("customerName", invoice.getCustomer().getCustomerName());
+        node.put("confidence", 0.93);
+        node.putArray("lineItems").addObject().put("description", "Consulting").put("amount", invoice.getAmount());
+        return node;
+    }
+
+    @Benchmark
+    public byte[] invoiceEntitiesAsArray() throws IOException {
+        return objectMapper.writeValueAsBytes(invoices);
+    }
+
+    @Benchmark
+    public byte[] reminderDtosAsArray() throws IOException {
+        return objectMapper.writeValueAsBytes(reminderDtos);
+    }
+
+    /**
+     * Per-line serialization used by the pending-for-reminder NDJSON stream
+     */
+    @Benchmark
+    public void reminderDtosAsNdjson(Blackhole blackhole) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size * 256);
+        for (InvoiceReminderDto dto : reminderDtos) {
+            out.write(objectMapper.writeValueAsBytes(dto));
+            out.write('\n');
+        }
+        blackhole.consume(out.size());
+    }
+}
@@ -12,7 +12,13 @@ from fastapi import FastAPI, HTTPException, status
 from fastapi.middleware.cors import CORSMiddleware
 from contextlib import asynccontextmanager
 
-from src.models import ExtractInvoiceRequest, ExtractionResponse, ExtractedInvoiceData
+from src.models import (
+    ExtractInvoiceRequest,
+    ExtractInvoiceBatchRequest,
+    ExtractionResponse,
+    ExtractionBatchResponse,
+    ExtractedInvoiceData,
+)
 from src.extraction_service import ExtractionService
 from config import config
 
@@ -80,6 +86,44 @@ async def extract_invoice(request: ExtractInvoiceRequest):
         f"file: {request.filePath}"
     )
     
+    return _extract(request)
+
+
+@app.post("/api/extract-invoices", response_model=ExtractionBatchResponse)
+def extract_invoices(request: ExtractInvoiceBatchRequest):
+    """
+    Extract invoice data from a batch of files
+    
+    Items are processed one after the other, so warm-up cost is paid once per batch;
+    a failing item does not affect the others. Declared without async so FastAPI runs
+    it in its thread pool instead of blocking the event loop for the whole batch.
+    
+    Args:
+        request: ExtractInvoiceBatchRequest with the invoices to extract
+        
+    Returns:
+        ExtractionBatchResponse with one result per item, in request order
+    """
+    logger.info(f"Received batch extraction request for {len(request.items)} invoices")
+    
+    results = [_extract(item) for item in request.items]
+    
+    succeeded = sum(1 for result in results if result.success)
+    logger.info(f"Extracted {succeeded} of {len(results)} invoices in batch")
+    
+    return ExtractionBatchResponse(results=results)
+
+
+def _extract(request: ExtractInvoiceRequest) -> ExtractionResponse:
+    """
+    Extract one invoice, reporting failures in the response rather than raising
+    
+    Args:
+        request: ExtractInvoiceRequest with invoiceId and filePath
+        
+    Returns:
+        ExtractionResponse with extracted data or the error
+    """
     try:
         # Extract invoice data
         extracted_data_dict = extraction_service.extract_invoice_data(request.filePath)
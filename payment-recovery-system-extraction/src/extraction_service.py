@@ -75,7 +75,7 @@ class ExtractionService:
             Full file path
         """
         # Construct full path
-        # relative_path format: companyId/YYYY/MM/DD/filename
+        # relative_path format: companyId/ab/<sha256>.ext (older uploads: companyId/YYYY/MM/DD/filename)
         # base_path: uploads/invoices
         full_path = os.path.join(config.java_file_base_path, relative_path)
         
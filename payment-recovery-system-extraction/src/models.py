@@ -2,7 +2,7 @@
 Pydantic models for request/response
 """
 from pydantic import BaseModel, Field
-from typing import Optional
+from typing import List, Optional
 from datetime import date
 
 
@@ -36,3 +36,13 @@ class ExtractionResponse(BaseModel):
     message: Optional[str] = Field(None, description="Status message")
     error: Optional[str] = Field(None, description="Error message if failed")
 
+
+
+class ExtractInvoiceBatchRequest(BaseModel):
+    """Request model for batched invoice extraction"""
+    items: List[ExtractInvoiceRequest] = Field(..., description="Invoices to extract")
+
+
+class ExtractionBatchResponse(BaseModel):
+    """Response model for batched extraction, one result per item"""
+    results: List[ExtractionResponse] = Field(..., description="Result per invoice, in request order")
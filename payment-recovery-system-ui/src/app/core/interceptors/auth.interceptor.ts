@@ -6,21 +6,32 @@ import {
   HttpInterceptor,
   HttpErrorResponse
 } from '@angular/common/http';
-import { Observable, throwError } from 'rxjs';
-import { catchError } from 'rxjs/operators';
+import { Observable, of, throwError, timer } from 'rxjs';
+import { catchError, finalize, map, shareReplay, switchMap } from 'rxjs/operators';
 import { Router } from '@angular/router';
 import { TokenService } from '../services/token.service';
 import { AuthService } from '../services/auth.service';
 
+/**
+ * How long a rejected refresh waits for another tab's refresh to store its new tokens
+ */
+const OTHER_TAB_REFRESH_WAIT_MS = 1000;
+
 /**
  * HTTP Interceptor for authentication
  * Responsibilities:
  * - Attach JWT token to every request
- * - Handle 401 Unauthorized responses
+ * - Renew an expired access token with the refresh token and retry the request
+ * - Pick up tokens another tab already renewed, since all tabs share one refresh token
  * - Redirect to login on session expiry
  */
 @Injectable()
 export class AuthInterceptor implements HttpInterceptor {
+  /**
+   * Refresh in progress, shared by all requests that failed with 401 meanwhile
+   */
+  private refreshInFlight$: Observable<string> | null = null;
+
   constructor(
     private tokenService: TokenService,
     private authService: AuthService,
@@ -35,19 +46,20 @@ export class AuthInterceptor implements HttpInterceptor {
     // Get JWT token from localStorage
     const token = this.tokenService.getToken();
 
-    // Clone request and add Authorization header if token exists
-    let authRequest = request;
-    if (token) {
-      authRequest = request.clone({
-        setHeaders: {
-          Authorization: `Bearer ${token}`
-        }
-      });
-    }
-
     // Handle request and catch errors
-    return next.handle(authRequest).pipe(
+    return next.handle(this.addToken(request, token)).pipe(
       catchError((error: HttpErrorResponse) => {
+        // Access token expired - refresh once and retry with the new token
+        if (error.status === 401 && !this.isAuthRequest(request) && this.tokenService.getRefreshToken()) {
+          return this.refreshAccessToken().pipe(
+            catchError(() => {
+              this.handleUnauthorized();
+              return throwError(() => error);
+            }),
+            switchMap((newToken) => next.handle(this.addToken(request, newToken)))
+          );
+        }
+
         // Handle 401 Unauthorized - Session expired or invalid token
         if (error.status === 401) {
           this.handleUnauthorized();
@@ -59,13 +71,75 @@ export class AuthInterceptor implements HttpInterceptor {
     );
   }
 
+  /**
+   * Clone request and add Authorization header if token exists
+   */
+  private addToken(request: HttpRequest<unknown>, token: string | null): HttpRequest<unknown> {
+    if (!token) {
+      return request;
+    }
+    return request.clone({
+      setHeaders: {
+        Authorization: `Bearer ${token}`
+      }
+    });
+  }
+
+  /**
+   * Login, refresh and logout calls are never retried
+   */
+  private isAuthRequest(request: HttpRequest<unknown>): boolean {
+    return request.url.includes('/auth/');
+  }
+
+  /**
+   * Refresh the access token, reusing a refresh that is already in progress
+   * Refresh tokens are single-use, so concurrent 401s must not each send their own refresh.
+   * Other tabs share the stored refresh token: when one of them rotated it first, ours is rejected,
+   * and the tokens that tab stored are used instead
+   */
+  private refreshAccessToken(): Observable<string> {
+    if (!this.refreshInFlight$) {
+      const usedRefreshToken = this.tokenService.getRefreshToken();
+      this.refreshInFlight$ = this.authService.refreshToken().pipe(
+        map((response) => response.token),
+        catchError((error) => {
+          const rotatedToken = this.tokenRotatedElsewhere(usedRefreshToken);
+          if (rotatedToken) {
+            return of(rotatedToken);
+          }
+          // The other tab's refresh may still be on its way back
+          return timer(OTHER_TAB_REFRESH_WAIT_MS).pipe(
+            switchMap(() => {
+              const token = this.tokenRotatedElsewhere(usedRefreshToken);
+              return token ? of(token) : throwError(() => error);
+            })
+          );
+        }),
+        finalize(() => {
+          this.refreshInFlight$ = null;
+        }),
+        shareReplay(1)
+      );
+    }
+    return this.refreshInFlight$;
+  }
+
+  /**
+   * Access token stored by another tab, if the stored refresh token is no longer the one we sent
+   */
+  private tokenRotatedElsewhere(usedRefreshToken: string | null): string | null {
+    const refreshToken = this.tokenService.getRefreshToken();
+    const token = this.tokenService.getToken();
+    return refreshToken && refreshToken !== usedRefreshToken && token ? token : null;
+  }
+
   /**
    * Handle 401 Unauthorized error
    * Logs out user and redirects to login page
    */
   private handleUnauthorized(): void {
-    // Clear authentication data
-    this.tokenService.clear();
+    // Logout revokes the stored refresh token server-side, then clears authentication data
     this.authService.logout();
 
     // Get current URL for redirect after login
@@ -9,6 +9,7 @@ export interface LoginRequest {
 
 export interface LoginResponse {
   token: string;
+  refreshToken: string;
   role: 'ADMIN' | 'COMPANY';
 }
 
@@ -51,8 +51,9 @@ export class AuthService {
   login(credentials: LoginRequest): Observable<LoginResponse> {
     return this.http.post<LoginResponse>(`${this.apiUrl}/login`, credentials).pipe(
       tap((response: LoginResponse) => {
-        // Store token and role in localStorage
+        // Store tokens and role in localStorage
         this.tokenService.setToken(response.token);
+        this.tokenService.setRefreshToken(response.refreshToken);
         this.tokenService.setRole(response.role);
         this.tokenService.setUsername(credentials.username);
 
@@ -71,10 +72,36 @@ export class AuthService {
     );
   }
 
+  /**
+   * Exchange the stored refresh token for a new access token and refresh token
+   * Used by the auth interceptor when the short-lived access token has expired
+   * @returns Observable of login response
+   */
+  refreshToken(): Observable<LoginResponse> {
+    const refreshToken = this.tokenService.getRefreshToken();
+    return this.http.post<LoginResponse>(`${this.apiUrl}/refresh`, { refreshToken }).pipe(
+      tap((response: LoginResponse) => {
+        this.tokenService.setToken(response.token);
+        this.tokenService.setRefreshToken(response.refreshToken);
+
+        const user = this.currentUserSubject.value;
+        if (user) {
+          this.currentUserSubject.next({ ...user, token: response.token });
+        }
+      })
+    );
+  }
+
   /**
    * Logout user
    */
   logout(): void {
+    // Revoke the refresh token server-side; logout proceeds even if this fails
+    const refreshToken = this.tokenService.getRefreshToken();
+    if (refreshToken) {
+      this.http.post(`${this.apiUrl}/logout`, { refreshToken }).subscribe({ error: () => {} });
+    }
+
     // Clear localStorage
     this.tokenService.clear();
     
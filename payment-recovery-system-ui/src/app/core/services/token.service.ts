@@ -6,6 +6,7 @@ import { Injectable } from '@angular/core';
 @Injectable({ providedIn: 'root' })
 export class TokenService {
   private readonly TOKEN_KEY = 'auth_token';
+  private readonly REFRESH_TOKEN_KEY = 'refresh_token';
   private readonly ROLE_KEY = 'user_role';
   private readonly USERNAME_KEY = 'username';
 
@@ -30,6 +31,27 @@ export class TokenService {
     localStorage.removeItem(this.TOKEN_KEY);
   }
 
+  /**
+   * Store refresh token in localStorage
+   */
+  setRefreshToken(refreshToken: string): void {
+    localStorage.setItem(this.REFRESH_TOKEN_KEY, refreshToken);
+  }
+
+  /**
+   * Get refresh token from localStorage
+   */
+  getRefreshToken(): string | null {
+    return localStorage.getItem(this.REFRESH_TOKEN_KEY);
+  }
+
+  /**
+   * Remove refresh token from localStorage
+   */
+  removeRefreshToken(): void {
+    localStorage.removeItem(this.REFRESH_TOKEN_KEY);
+  }
+
   /**
    * Check if token exists
    */
@@ -111,6 +133,7 @@ export class TokenService {
    */
   clear(): void {
     this.removeToken();
+    this.removeRefreshToken();
     this.removeRole();
     this.removeUsername();
   }